@@ -1,7 +1,10 @@
 package cn.com.vortexa.aro_network;
 
 
+import cn.com.vortexa.aro_network.config.AroConfig;
+import cn.com.vortexa.aro_network.lifecycle.SessionLifecycleManager;
 import cn.com.vortexa.aro_network.service.AroNetworkApi;
+import cn.com.vortexa.aro_network.service.EarnPointHandle;
 import cn.com.vortexa.aro_network.service.impl.AroNetworkApiImpl;
 import cn.com.vortexa.base.util.log.AppendLogger;
 import cn.com.vortexa.bot_template.bot.AbstractVortexaBot;
@@ -13,12 +16,21 @@ import cn.com.vortexa.bot_template.bot.dto.FullAccountContext;
 import cn.com.vortexa.bot_template.bot.handler.FullAccountContextScanner;
 import cn.com.vortexa.bot_template.constants.VortexaBotApiSchedulerType;
 import cn.com.vortexa.bot_template.entity.AccountContext;
+import cn.com.vortexa.bot_template.exception.BotInvokeException;
 import cn.com.vortexa.common.dto.PageResult;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * @author helei
  * @since 2025-09-29
  */
+@Slf4j
 @VortexaBot(
         namespace = "Aro Network",
         websiteUrl = "https://aro.network/",
@@ -34,7 +46,16 @@ public class AroNetworkBot extends AbstractVortexaBot {
 
     public AroNetworkBot(VortexaBotContext vortexaBotContext) {
         super(vortexaBotContext);
-        this.aroNetworkApi = new AroNetworkApiImpl(this);
+        this.aroNetworkApi = new AroNetworkApiImpl();
+        long reconcileInterval = AroConfig.getLong(
+                AroNetworkApiImpl.RECONCILE_INTERVAL_MINUTES_KEY, AroNetworkApiImpl.DEFAULT_RECONCILE_INTERVAL_MINUTES
+        );
+        SessionLifecycleManager.schedulePeriodic("reconcile nodes", () -> {
+            int changed = reconcileAccounts();
+            if (changed > 0) {
+                log.info("periodic reconcile finish, changed account[{}]", changed);
+            }
+        }, reconcileInterval, TimeUnit.MINUTES);
     }
 
     @VortexaBotAPI(
@@ -44,6 +65,8 @@ public class AroNetworkBot extends AbstractVortexaBot {
             schedulerType = VortexaBotApiSchedulerType.NONE
     )
     public void pointQuery() {
+        // 扫描时只提交查询，不阻塞，整页的请求并发执行
+        Queue<CompletableFuture<Double>> futures = new ConcurrentLinkedQueue<>();
         forEachAccountContext(new FullAccountContextScanner() {
             @Override
             public void scan(PageResult<AccountContext> pageResult, int i, FullAccountContext fullAccountContext) throws Exception {
@@ -53,9 +76,66 @@ public class AroNetworkBot extends AbstractVortexaBot {
             @Override
             public Object scanWithResult(PageResult<AccountContext> page, int batchIdx, FullAccountContext fullAccountContext) throws Exception {
                 AppendLogger logger = getBotMethodInvokeContext().getLogger();
-                return aroNetworkApi.pointQuery(fullAccountContext, logger);
+                CompletableFuture<Double> future = aroNetworkApi.pointQueryAsync(fullAccountContext, logger);
+                futures.add(future);
+                return future;
+            }
+        });
+
+        AppendLogger logger = getBotMethodInvokeContext().getLogger();
+        long failed = futures.stream()
+                .map(future -> future.handle((total, e) -> {
+                    if (e != null) {
+                        logger.error("query point error", e.getCause() == null ? e : e.getCause());
+                    }
+                    return e == null;
+                }).join())
+                .filter(success -> !success)
+                .count();
+        logger.info("point query finish, total[%s] failed[%s]".formatted(futures.size(), failed));
+    }
+
+    @VortexaBotAPI(
+            name = "Reconcile nodes",
+            catalogueName = GROUP_DEPIN,
+            catalogueOrder = 2,
+            schedulerType = VortexaBotApiSchedulerType.NONE
+    )
+    public void reconcileNodes() {
+        // 只处理参数有变化的账户，运行中的节点不受影响
+        int changed = reconcileAccounts();
+        getBotMethodInvokeContext().getLogger().info("reconcile finish, changed account[%s]".formatted(changed));
+    }
+
+    /**
+     * 通过框架重新加载账户后逐个对账，账户参数以框架中的最新数据为准
+     *
+     * @return 有变化的账户数
+     */
+    private int reconcileAccounts() {
+        AtomicInteger changed = new AtomicInteger(0);
+        forEachAccountContext(new FullAccountContextScanner() {
+            @Override
+            public void scan(PageResult<AccountContext> pageResult, int i, FullAccountContext fullAccountContext) throws Exception {
+
+            }
+
+            @Override
+            public Object scanWithResult(PageResult<AccountContext> page, int batchIdx, FullAccountContext fullAccountContext) throws Exception {
+                // 单个账户出错不影响其他账户
+                try {
+                    boolean reconciled = aroNetworkApi.reconcile(fullAccountContext);
+                    if (reconciled) {
+                        changed.incrementAndGet();
+                    }
+                    return reconciled;
+                } catch (BotInvokeException e) {
+                    log.error("reconcile account error", e.getCause() == null ? e : e.getCause());
+                    return false;
+                }
             }
         });
+        return changed.get();
     }
 
     @VortexaBotAPI(
@@ -73,8 +153,18 @@ public class AroNetworkBot extends AbstractVortexaBot {
 
             @Override
             public Object scanWithResult(PageResult<AccountContext> page, int batchIdx, FullAccountContext fullAccountContext) throws Exception {
+                // 启动后立即返回，节点进度见 /aro/events
                 AppendLogger logger = getBotMethodInvokeContext().getLogger();
-                return aroNetworkApi.startEarnPoint(fullAccountContext, retry, reconnectDelay, logger);
+                EarnPointHandle handle = aroNetworkApi.startEarnPointAsync(fullAccountContext, retry, reconnectDelay, logger);
+                handle.getCompletion().whenComplete((result, e) -> {
+                    if (e != null) {
+                        logger.error("user[%s] earn point error".formatted(handle.getUserId()), e.getCause() == null ? e : e.getCause());
+                    } else {
+                        logger.info("user[%s] earn point finish, %s".formatted(handle.getUserId(), result));
+                    }
+                });
+                logger.info("user[%s] %s node submitted".formatted(handle.getUserId(), handle.getNodeIds().size()));
+                return handle.getNodeIds();
             }
         });
     }
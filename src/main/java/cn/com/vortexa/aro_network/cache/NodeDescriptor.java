@@ -0,0 +1,54 @@
+package cn.com.vortexa.aro_network.cache;
+
+import lombok.Getter;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * 账户下节点的编译结果，参数不变时直接复用
+ *
+ * @author helei
+ * @since 2025-10-12
+ */
+@Getter
+public final class NodeDescriptor {
+    private final String userId;
+    /**
+     * 按 node_id_ 后缀排序的节点id
+     */
+    private final List<String> nodeIds;
+    /**
+     * 节点可以迁移到的代理池，不允许迁移时为空
+     */
+    private final String proxyPool;
+    /**
+     * 描述的版本，只有节点、user_id 或迁移设置变化时才递增，其他参数变化不影响
+     */
+    private final long version;
+
+    NodeDescriptor(String userId, List<String> nodeIds, String proxyPool, long version) {
+        this.userId = userId;
+        this.proxyPool = proxyPool;
+        this.nodeIds = List.copyOf(nodeIds);
+        this.version = version;
+    }
+
+    public boolean isAllowProxyMigration() {
+        return proxyPool != null;
+    }
+
+    public int size() {
+        return nodeIds.size();
+    }
+
+    /**
+     * 编译结果是否相同，不比较版本
+     */
+    boolean sameContent(NodeDescriptor other) {
+        return other != null
+                && userId.equals(other.userId)
+                && Objects.equals(proxyPool, other.proxyPool)
+                && nodeIds.equals(other.nodeIds);
+    }
+}
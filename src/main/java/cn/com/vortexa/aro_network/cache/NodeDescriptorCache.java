@@ -0,0 +1,170 @@
+package cn.com.vortexa.aro_network.cache;
+
+import cn.com.vortexa.aro_network.service.impl.AroNetworkApiImpl;
+import cn.com.vortexa.aro_network.websocket.NodeFrames;
+import cn.com.vortexa.bot_template.bot.dto.FullAccountContext;
+import cn.com.vortexa.common.util.CastUtil;
+import cn.hutool.core.util.StrUtil;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 按 user_id 缓存 NodeDescriptor
+ * 1.get：参数map还是编译时的同一个实例就直接返回，不再计算参数的hashCode，定时对账时使用，
+ * 参数map被替换（框架重新加载了账户参数）是唯一的变化信号
+ * 2.refresh：重新编译，账户启动时调用，框架原地修改参数map的情况由这里发现；
+ * 编译结果与缓存相同时沿用原描述（版本不变），否则版本递增
+ * 节点帧（NodeFrames）跟随描述一起淘汰：描述重建后不再包含的节点，其帧同时移出缓存
+ *
+ * @author helei
+ * @since 2025-10-12
+ */
+public class NodeDescriptorCache {
+    private static final NodeDescriptorCache INSTANCE = new NodeDescriptorCache();
+
+    /**
+     * node_id_1, node_id_2 ... node_id_10 按数字排序，非数字后缀排在后面按字符串排序
+     */
+    private static final Comparator<String> NODE_KEY_ORDER = Comparator
+            .comparingLong(NodeDescriptorCache::nodeKeyIndex)
+            .thenComparing(Comparator.naturalOrder());
+
+    private final Map<String, Entry> descriptors = new ConcurrentHashMap<>();
+    private final AtomicLong versions = new AtomicLong();
+
+    public static NodeDescriptorCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * 获取账户的节点描述，参数map未被替换时直接返回缓存
+     *
+     * @param fullAccountContext fullAccountContext
+     * @return NodeDescriptor
+     */
+    public NodeDescriptor get(FullAccountContext fullAccountContext) {
+        Map<String, Object> params = fullAccountContext.getParams();
+        Entry entry = descriptors.get(cacheKey(fullAccountContext));
+        if (entry != null && entry.params == params) {
+            return entry.descriptor;
+        }
+        return refresh(fullAccountContext);
+    }
+
+    /**
+     * 重新编译账户的节点描述
+     *
+     * @param fullAccountContext fullAccountContext
+     * @return NodeDescriptor，内容未变化时为原来的实例
+     */
+    public NodeDescriptor refresh(FullAccountContext fullAccountContext) {
+        Map<String, Object> params = fullAccountContext.getParams();
+        Entry updated = descriptors.compute(cacheKey(fullAccountContext), (k, previous) -> {
+            NodeDescriptor compiled = compile(fullAccountContext, params);
+            if (previous != null && previous.descriptor.sameContent(compiled)) {
+                return new Entry(params, previous.descriptor);
+            }
+            NodeDescriptor descriptor = new NodeDescriptor(
+                    compiled.getUserId(), compiled.getNodeIds(), compiled.getProxyPool(),
+                    versions.incrementAndGet()
+            );
+            if (previous != null) {
+                evictRemovedFrames(previous.descriptor, descriptor);
+            }
+            return new Entry(params, descriptor);
+        });
+        return updated.descriptor;
+    }
+
+    private static String cacheKey(FullAccountContext fullAccountContext) {
+        Object rawUserId = fullAccountContext.getParam(AroNetworkApiImpl.USER_ID_KEY);
+        if (rawUserId == null) {
+            throw new IllegalArgumentException("user id is empty");
+        }
+        return rawUserId.toString();
+    }
+
+    private static void evictRemovedFrames(NodeDescriptor previous, NodeDescriptor current) {
+        Set<String> retained = previous.getUserId().equals(current.getUserId())
+                ? new HashSet<>(current.getNodeIds())
+                : Set.of();
+        for (String nodeId : previous.getNodeIds()) {
+            if (!retained.contains(nodeId)) {
+                NodeFrames.evict(previous.getUserId(), nodeId);
+            }
+        }
+    }
+
+    /**
+     * 编译节点描述，版本为0，由调用方决定沿用旧版本还是分配新版本
+     */
+    private static NodeDescriptor compile(FullAccountContext fullAccountContext, Map<String, Object> params) {
+        String userId = CastUtil.autoCast(fullAccountContext.getParam(AroNetworkApiImpl.USER_ID_KEY));
+        if (StrUtil.isBlank(userId)) {
+            throw new IllegalArgumentException("user id is empty");
+        }
+
+        List<Map.Entry<String, Object>> nodeEntries = new ArrayList<>();
+        for (Map.Entry<String, Object> entry : params.entrySet()) {
+            if (entry.getValue() != null && entry.getKey().startsWith(AroNetworkApiImpl.NODE_ID_PATTERN)) {
+                nodeEntries.add(entry);
+            }
+        }
+        if (nodeEntries.isEmpty()) {
+            throw new IllegalArgumentException("node id is empty");
+        }
+        nodeEntries.sort(Map.Entry.comparingByKey(NODE_KEY_ORDER));
+
+        List<String> nodeIds = new ArrayList<>(nodeEntries.size());
+        Set<String> seen = new HashSet<>();
+        for (Map.Entry<String, Object> entry : nodeEntries) {
+            String nodeId = String.valueOf(entry.getValue()).trim();
+            // 空值和重复的节点不启动
+            if (nodeId.isEmpty() || !seen.add(nodeId)) continue;
+            // 同一个id在描述、帧缓存、注册表和会话中共用一个实例
+            nodeIds.add(nodeId.intern());
+        }
+        if (nodeIds.isEmpty()) {
+            throw new IllegalArgumentException("node id is empty");
+        }
+        return new NodeDescriptor(userId.intern(), nodeIds, proxyPool(userId, params), 0);
+    }
+
+    /**
+     * 账户节点可以迁移到的代理池
+     * 1.allow_proxy_migrate 不为 true 时不允许迁移，返回空
+     * 2.proxy_pool 指定池名，多个账户配置同一个池名即允许节点在这些账户的代理之间迁移
+     * 3.未指定时为账户自己的池（按 user_id），不会迁移到其他账户的代理上
+     *
+     * @param userId userId
+     * @param params 账户参数
+     * @return 池名，不允许迁移时为空
+     */
+    public static String proxyPool(String userId, Map<String, Object> params) {
+        if (!Boolean.parseBoolean(String.valueOf(params.get(AroNetworkApiImpl.PROXY_MIGRATE_KEY)))) {
+            return null;
+        }
+        Object pool = params.get(AroNetworkApiImpl.PROXY_POOL_KEY);
+        String name = pool == null || StrUtil.isBlank(pool.toString()) ? "user:" + userId : "pool:" + pool.toString().trim();
+        return name.intern();
+    }
+
+    private record Entry(Map<String, Object> params, NodeDescriptor descriptor) {
+    }
+
+    private static long nodeKeyIndex(String key) {
+        String suffix = key.substring(AroNetworkApiImpl.NODE_ID_PATTERN.length());
+        try {
+            return Long.parseLong(suffix);
+        } catch (NumberFormatException e) {
+            return Long.MAX_VALUE;
+        }
+    }
+}
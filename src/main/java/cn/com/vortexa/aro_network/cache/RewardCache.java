@@ -0,0 +1,167 @@
+package cn.com.vortexa.aro_network.cache;
+
+import cn.com.vortexa.aro_network.config.AroConfig;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 积分缓存，按token缓存，限制大小并按时间过期
+ * 1.fresh时间内直接返回
+ * 2.过了fresh但在stale窗口内，直接返回旧值，同时后台刷新
+ * 3.超出stale窗口视为未命中
+ * token轮换或接口返回401/403时由调用方 invalidate，避免继续返回失效token下的积分；
+ * fresh/stale窗口和大小通过 aro.reward-cache.* 配置
+ *
+ * @author helei
+ * @since 2025-10-10
+ */
+@Slf4j
+public class RewardCache {
+    public static final String FRESH_MINUTES_KEY = "aro.reward-cache.fresh-minutes";
+    public static final String STALE_MINUTES_KEY = "aro.reward-cache.stale-minutes";
+    public static final String MAX_SIZE_KEY = "aro.reward-cache.max-size";
+    public static final long DEFAULT_FRESH_MINUTES = 5;
+    public static final long DEFAULT_STALE_MINUTES = 30;
+    public static final int DEFAULT_MAX_SIZE = 10_000;
+
+    private static final RewardCache INSTANCE = new RewardCache(
+            TimeUnit.MINUTES.toMillis(AroConfig.getLong(FRESH_MINUTES_KEY, DEFAULT_FRESH_MINUTES)),
+            TimeUnit.MINUTES.toMillis(AroConfig.getLong(STALE_MINUTES_KEY, DEFAULT_STALE_MINUTES)),
+            AroConfig.getInt(MAX_SIZE_KEY, DEFAULT_MAX_SIZE)
+    );
+
+    private final long freshMillis;
+    private final long staleMillis;
+    private final Map<String, Entry> entries;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder staleHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder refreshFailures = new LongAdder();
+
+    public RewardCache(long freshMillis, long staleMillis, int maxSize) {
+        this.freshMillis = freshMillis;
+        this.staleMillis = staleMillis;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    public static RewardCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * 获取积分
+     *
+     * @param token  token，为空时不走缓存
+     * @param loader 实际查询
+     * @return 积分
+     */
+    public CompletableFuture<Double> get(String token, Supplier<CompletableFuture<Double>> loader) {
+        if (token == null) {
+            misses.increment();
+            return loader.get();
+        }
+
+        long now = System.currentTimeMillis();
+        Entry entry;
+        boolean refresh = false;
+        synchronized (entries) {
+            entry = entries.get(token);
+            if (entry != null) {
+                long age = now - entry.loadedAt;
+                if (age > freshMillis + staleMillis) {
+                    entries.remove(token);
+                    entry = null;
+                } else if (age > freshMillis && !entry.refreshing) {
+                    entry.refreshing = true;
+                    refresh = true;
+                }
+            }
+        }
+
+        if (entry == null) {
+            misses.increment();
+            return loader.get().thenApply(value -> {
+                put(token, value);
+                return value;
+            });
+        }
+
+        if (now - entry.loadedAt <= freshMillis) {
+            hits.increment();
+        } else {
+            staleHits.increment();
+        }
+        if (refresh) {
+            Entry stale = entry;
+            loader.get().whenComplete((value, e) -> {
+                if (e != null) {
+                    refreshFailures.increment();
+                    stale.refreshing = false;
+                    log.warn("refresh reward cache error, {}", e.getMessage());
+                } else {
+                    put(token, value);
+                }
+            });
+        }
+        return CompletableFuture.completedFuture(entry.value);
+    }
+
+    public void invalidate(String token) {
+        if (token == null) return;
+        synchronized (entries) {
+            entries.remove(token);
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getStaleHits() {
+        return staleHits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getRefreshFailures() {
+        return refreshFailures.sum();
+    }
+
+    private void put(String token, Double value) {
+        if (value == null) return;
+        synchronized (entries) {
+            entries.put(token, new Entry(value, System.currentTimeMillis()));
+        }
+    }
+
+    private static final class Entry {
+        private final double value;
+        private final long loadedAt;
+        private volatile boolean refreshing = false;
+
+        private Entry(double value, long loadedAt) {
+            this.value = value;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package cn.com.vortexa.aro_network.checkpoint;
+
+import com.alibaba.fastjson.annotation.JSONField;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+/**
+ * 节点会话检查点
+ *
+ * @author helei
+ * @since 2025-10-14
+ */
+@Data
+public class SessionCheckpoint {
+    private String nodeId;
+    private String userId;
+    private String proxy;
+    /**
+     * 最近一次鉴权成功的时间
+     */
+    private long lastAuthTime;
+    private int pingCount;
+    private int reconnectCount;
+    /**
+     * 连续失败次数（退避次数）
+     */
+    private int backoffAttempt;
+    /**
+     * 保存时代理在 ProxyHealthRegistry 中是否为HEALTHY（BAD、PROBING 都记为不健康）
+     */
+    private boolean proxyHealthy;
+    @EqualsAndHashCode.Exclude
+    private long updatedAt;
+
+    /**
+     * 上次运行时是否处于健康状态
+     */
+    @JSONField(serialize = false)
+    public boolean isHealthy() {
+        return lastAuthTime > 0 && backoffAttempt == 0 && proxyHealthy;
+    }
+}
@@ -0,0 +1,206 @@
+package cn.com.vortexa.aro_network.checkpoint;
+
+import cn.com.vortexa.aro_network.exec.ExecutionLanes;
+import cn.com.vortexa.aro_network.monitor.AROClientRegistry;
+import cn.com.vortexa.aro_network.proxy.ProxyHealthRegistry;
+import cn.com.vortexa.aro_network.proxy.ProxyKeys;
+import cn.com.vortexa.aro_network.websocket.AROClient;
+import cn.com.vortexa.aro_network.websocket.ReconnectPolicy;
+import cn.hutool.core.util.StrUtil;
+import com.alibaba.fastjson.JSON;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 会话检查点存储，本地追加写 jsonl 文件，同一节点以最后一行为准，行数过多时压缩
+ * 启动时据此安排节点启动顺序：健康节点优先，上次失败的节点按退避延迟启动
+ * 文件路径可通过系统属性 aro.checkpoint.file 指定
+ *
+ * @author helei
+ * @since 2025-10-14
+ */
+@Slf4j
+public class SessionCheckpointStore {
+    public static final String FILE_PROPERTY = "aro.checkpoint.file";
+    public static final String DEFAULT_FILE = "data/aro_session_checkpoint.jsonl";
+    public static final long FLUSH_INTERVAL_SECONDS = 60;
+    private static final int MIN_COMPACT_LINES = 1000;
+
+    private static final SessionCheckpointStore INSTANCE = new SessionCheckpointStore(
+            Paths.get(StrUtil.blankToDefault(System.getProperty(FILE_PROPERTY), DEFAULT_FILE))
+    );
+
+    private final Path file;
+    private final Map<String, SessionCheckpoint> checkpoints = new ConcurrentHashMap<>();
+    private final ScheduledFuture<?> flushTask;
+    private int fileLines = 0;
+
+    public SessionCheckpointStore(Path file) {
+        this.file = file;
+        load();
+        this.flushTask = ExecutionLanes.BACKGROUND.scheduleWithFixedDelay(
+                this::flushQuietly, FLUSH_INTERVAL_SECONDS, FLUSH_INTERVAL_SECONDS, TimeUnit.SECONDS
+        );
+    }
+
+    public static SessionCheckpointStore getInstance() {
+        return INSTANCE;
+    }
+
+    public SessionCheckpoint get(String nodeId) {
+        return checkpoints.get(nodeId);
+    }
+
+    /**
+     * 按上次运行状态排序，健康的在前
+     *
+     * @param nodeIds nodeIds
+     * @return 排序后的nodeIds
+     */
+    public List<String> prioritize(List<String> nodeIds) {
+        List<String> ordered = new ArrayList<>(nodeIds);
+        ordered.sort(Comparator.comparingInt(this::startPriority));
+        return ordered;
+    }
+
+    /**
+     * 节点的启动延迟，健康或没有记录的节点立即启动，上次失败的节点按退避延迟
+     *
+     * @param nodeId nodeId
+     * @param policy policy
+     * @return delay millis
+     */
+    public long planStartDelayMillis(String nodeId, ReconnectPolicy policy) {
+        SessionCheckpoint checkpoint = checkpoints.get(nodeId);
+        if (checkpoint == null || checkpoint.isHealthy()) {
+            return 0;
+        }
+        return policy.nextDelayMillis(Math.max(1, checkpoint.getBackoffAttempt()));
+    }
+
+    /**
+     * 把运行中节点的状态写入文件，只追加有变化的节点
+     */
+    public synchronized void flush() throws IOException {
+        List<SessionCheckpoint> changed = new ArrayList<>();
+        long now = System.currentTimeMillis();
+        for (AROClient client : AROClientRegistry.getInstance().clients()) {
+            SessionCheckpoint checkpoint = capture(client);
+            if (!checkpoint.equals(checkpoints.get(checkpoint.getNodeId()))) {
+                checkpoint.setUpdatedAt(now);
+                checkpoints.put(checkpoint.getNodeId(), checkpoint);
+                changed.add(checkpoint);
+            }
+        }
+        if (changed.isEmpty()) return;
+
+        if (fileLines + changed.size() > Math.max(MIN_COMPACT_LINES, checkpoints.size() * 4L)) {
+            compact();
+            return;
+        }
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        try (BufferedWriter writer = Files.newBufferedWriter(
+                file, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND
+        )) {
+            for (SessionCheckpoint checkpoint : changed) {
+                writer.write(JSON.toJSONString(checkpoint));
+                writer.newLine();
+            }
+        }
+        fileLines += changed.size();
+    }
+
+    /**
+     * 停止定时写入，调用前应先 flush
+     */
+    public void close() {
+        flushTask.cancel(false);
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (Exception e) {
+            log.error("flush session checkpoint error", e);
+        }
+    }
+
+    private int startPriority(String nodeId) {
+        SessionCheckpoint checkpoint = checkpoints.get(nodeId);
+        if (checkpoint == null) return 1;
+        return checkpoint.isHealthy() ? 0 : 2;
+    }
+
+    private static SessionCheckpoint capture(AROClient client) {
+        SessionCheckpoint checkpoint = new SessionCheckpoint();
+        checkpoint.setNodeId(client.getNodeId());
+        checkpoint.setUserId(client.getUserId());
+        checkpoint.setProxy(ProxyKeys.label(client.getProxy()));
+        checkpoint.setLastAuthTime(client.getLastAuthTime());
+        checkpoint.setPingCount(client.getPintCount());
+        checkpoint.setReconnectCount(client.getReconnectCount());
+        checkpoint.setBackoffAttempt(client.getBackoffAttempt());
+        checkpoint.setProxyHealthy(ProxyHealthRegistry.getInstance().isHealthy(client.getProxy()));
+        return checkpoint;
+    }
+
+    private synchronized void load() {
+        if (!Files.exists(file)) return;
+        try {
+            List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+            for (String line : lines) {
+                if (StrUtil.isBlank(line)) continue;
+                try {
+                    SessionCheckpoint checkpoint = JSON.parseObject(line, SessionCheckpoint.class);
+                    checkpoints.put(checkpoint.getNodeId(), checkpoint);
+                } catch (Exception e) {
+                    log.warn("skip broken checkpoint line, {}", e.getMessage());
+                }
+            }
+            fileLines = lines.size();
+            log.info("loaded [{}] session checkpoints from [{}]", checkpoints.size(), file);
+            if (fileLines > checkpoints.size() * 2) {
+                compact();
+            }
+        } catch (IOException e) {
+            log.error("load session checkpoint error", e);
+        }
+    }
+
+    /**
+     * 重写为每个节点一行
+     */
+    private void compact() throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (BufferedWriter writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+            for (SessionCheckpoint checkpoint : checkpoints.values()) {
+                writer.write(JSON.toJSONString(checkpoint));
+                writer.newLine();
+            }
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        fileLines = checkpoints.size();
+    }
+}
@@ -0,0 +1,51 @@
+package cn.com.vortexa.aro_network.config;
+
+import cn.hutool.core.util.StrUtil;
+import org.springframework.core.env.Environment;
+
+/**
+ * aro 相关配置的统一读取入口，供不由 Spring 管理的单例使用
+ * 1.Spring 启动后从 Environment 读取（application.yml、系统属性、环境变量）
+ * 2.Spring 启动前（或单独运行时）读取系统属性，其次是环境变量，如 aro.reconnect.burst -> ARO_RECONNECT_BURST
+ * 3.都没有时使用默认值
+ *
+ * @author helei
+ * @since 2025-10-18
+ */
+public final class AroConfig {
+    private static volatile Environment environment;
+
+    private AroConfig() {
+    }
+
+    static void bind(Environment environment) {
+        AroConfig.environment = environment;
+    }
+
+    public static String get(String key, String defaultValue) {
+        Environment env = environment;
+        String value = env == null ? null : env.getProperty(key);
+        if (StrUtil.isBlank(value)) {
+            value = System.getProperty(key);
+        }
+        if (StrUtil.isBlank(value)) {
+            value = System.getenv(key.toUpperCase().replace('.', '_').replace('-', '_'));
+        }
+        return StrUtil.isBlank(value) ? defaultValue : value.trim();
+    }
+
+    public static int getInt(String key, int defaultValue) {
+        String value = get(key, null);
+        return value == null ? defaultValue : Integer.parseInt(value);
+    }
+
+    public static long getLong(String key, long defaultValue) {
+        String value = get(key, null);
+        return value == null ? defaultValue : Long.parseLong(value);
+    }
+
+    public static double getDouble(String key, double defaultValue) {
+        String value = get(key, null);
+        return value == null ? defaultValue : Double.parseDouble(value);
+    }
+}
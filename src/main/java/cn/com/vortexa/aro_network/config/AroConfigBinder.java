@@ -0,0 +1,28 @@
+package cn.com.vortexa.aro_network.config;
+
+import org.jetbrains.annotations.NotNull;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+/**
+ * 把 Spring 的 Environment 交给 AroConfig
+ * 作为 BeanFactoryPostProcessor 在普通 bean 之前创建，指标等 bean 初始化时触发的单例已经能读到 application.yml
+ *
+ * @author helei
+ * @since 2025-10-18
+ */
+@Component
+public class AroConfigBinder implements BeanFactoryPostProcessor, EnvironmentAware {
+
+    @Override
+    public void setEnvironment(@NotNull Environment environment) {
+        AroConfig.bind(environment);
+    }
+
+    @Override
+    public void postProcessBeanFactory(@NotNull ConfigurableListableBeanFactory beanFactory) {
+    }
+}
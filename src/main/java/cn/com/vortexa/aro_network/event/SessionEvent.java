@@ -0,0 +1,47 @@
+package cn.com.vortexa.aro_network.event;
+
+import cn.com.vortexa.aro_network.websocket.SessionState;
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * 节点会话事件
+ *
+ * @author helei
+ * @since 2025-10-17
+ */
+@Data
+@Builder(toBuilder = true)
+public class SessionEvent {
+
+    public enum Type {
+        /**
+         * 状态变化，state为新状态
+         */
+        STATE,
+        /**
+         * 发送了一次ping，pingCount为累计次数
+         */
+        PING,
+        /**
+         * 会话失败结束，detail为原因
+         */
+        FAILED
+    }
+
+    private String nodeId;
+
+    private String userId;
+
+    private Type type;
+
+    private SessionState state;
+
+    private int pingCount;
+
+    private int reconnectCount;
+
+    private String detail;
+
+    private long timestamp;
+}
@@ -0,0 +1,169 @@
+package cn.com.vortexa.aro_network.event;
+
+import cn.com.vortexa.aro_network.exec.ExecutionLanes;
+import cn.com.vortexa.aro_network.websocket.AROClient;
+import cn.com.vortexa.aro_network.websocket.SessionState;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * 节点会话事件总线
+ * 1.按状态维护实时计数，状态变化时增减，查询时不需要遍历节点；
+ * 进入CLOSED时从实时计数中移除，没有走到CLOSED就被回收的会话在释放槽位时移除，计数不会残留
+ * 2.事件放入有界队列，在 events 通道上定时批量分发给订阅者，发布方不会被慢订阅者阻塞，队列满时丢弃
+ * CLOSED的计数为累计结束的会话数，每个会话只会进入一次CLOSED
+ *
+ * @author helei
+ * @since 2025-10-17
+ */
+@Slf4j
+public class SessionEventBus {
+    private static final int QUEUE_CAPACITY = 16384;
+    private static final long DISPATCH_INTERVAL_MILLIS = 100;
+    private static final int BATCH_SIZE = 256;
+    private static final SessionEventBus INSTANCE = new SessionEventBus();
+
+    private final Map<SessionState, LongAdder> counts = new EnumMap<>(SessionState.class);
+    private final LongAdder closedTotal = new LongAdder();
+    private final List<Consumer<SessionEvent>> subscribers = new CopyOnWriteArrayList<>();
+    private final BlockingQueue<SessionEvent> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final AtomicLong dropped = new AtomicLong(0);
+
+    private SessionEventBus() {
+        for (SessionState state : SessionState.values()) {
+            counts.put(state, new LongAdder());
+        }
+        ExecutionLanes.EVENTS.scheduleWithFixedDelay(
+                this::dispatchPending, DISPATCH_INTERVAL_MILLIS, DISPATCH_INTERVAL_MILLIS, TimeUnit.MILLISECONDS
+        );
+    }
+
+    public static SessionEventBus getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * 订阅事件，回调在 events 通道上执行
+     *
+     * @param subscriber subscriber
+     * @return 取消订阅
+     */
+    public Runnable subscribe(Consumer<SessionEvent> subscriber) {
+        subscribers.add(subscriber);
+        return () -> subscribers.remove(subscriber);
+    }
+
+    public void sessionCreated(AROClient client) {
+        increment(client.getState());
+        publish(client, SessionEvent.Type.STATE, client.getState(), null);
+    }
+
+    public void stateChanged(AROClient client, SessionState from, SessionState to) {
+        decrement(from);
+        increment(to);
+        publish(client, SessionEvent.Type.STATE, to, null);
+    }
+
+    /**
+     * 会话对象被回收、槽位释放时调用，每个会话只调用一次
+     *
+     * @param last 释放时的状态
+     */
+    public void sessionReleased(SessionState last) {
+        decrement(last);
+    }
+
+    public void ping(AROClient client) {
+        if (subscribers.isEmpty()) return;
+        publish(client, SessionEvent.Type.PING, client.getState(), null);
+    }
+
+    public void failed(AROClient client, String reason) {
+        publish(client, SessionEvent.Type.FAILED, client.getState(), reason);
+    }
+
+    public long count(SessionState state) {
+        if (state == SessionState.CLOSED) {
+            return closedTotal.sum();
+        }
+        return counts.get(state).sum();
+    }
+
+    public Map<SessionState, Long> liveCounts() {
+        Map<SessionState, Long> result = new EnumMap<>(SessionState.class);
+        for (SessionState state : SessionState.values()) {
+            result.put(state, count(state));
+        }
+        return result;
+    }
+
+    /**
+     * CLOSED 只累计结束次数，不计入实时计数
+     */
+    private void increment(SessionState state) {
+        if (state == SessionState.CLOSED) {
+            closedTotal.increment();
+        } else {
+            counts.get(state).increment();
+        }
+    }
+
+    private void decrement(SessionState state) {
+        if (state != SessionState.CLOSED) {
+            counts.get(state).decrement();
+        }
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    private void publish(AROClient client, SessionEvent.Type type, SessionState state, String detail) {
+        if (subscribers.isEmpty()) return;
+        SessionEvent event = SessionEvent.builder()
+                .nodeId(client.getNodeId())
+                .userId(client.getUserId())
+                .type(type)
+                .state(state)
+                .pingCount(client.getPintCount())
+                .reconnectCount(client.getReconnectCount())
+                .detail(detail)
+                .timestamp(System.currentTimeMillis())
+                .build();
+        if (!queue.offer(event)) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    /**
+     * 分发当前队列中的事件，之后新进入的事件留给下一次
+     */
+    public synchronized void dispatchPending() {
+        List<SessionEvent> batch = new ArrayList<>(BATCH_SIZE);
+        int remaining = queue.size();
+        while (remaining > 0 && queue.drainTo(batch, Math.min(BATCH_SIZE, remaining)) > 0) {
+            remaining -= batch.size();
+            for (SessionEvent event : batch) {
+                for (Consumer<SessionEvent> subscriber : subscribers) {
+                    try {
+                        subscriber.accept(event);
+                    } catch (Exception e) {
+                        log.warn("session event subscriber error", e);
+                    }
+                }
+            }
+            batch.clear();
+        }
+    }
+}
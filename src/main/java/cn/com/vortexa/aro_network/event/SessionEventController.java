@@ -0,0 +1,64 @@
+package cn.com.vortexa.aro_network.event;
+
+import cn.com.vortexa.aro_network.monitor.IdMasker;
+import cn.com.vortexa.aro_network.websocket.SessionState;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 节点会话事件推送（SSE）
+ * 推送的 userId、nodeId 已脱敏，userId 过滤参数仍按完整id匹配
+ *
+ * @author helei
+ * @since 2025-10-17
+ */
+@RestController
+@RequestMapping("/aro/events")
+public class SessionEventController {
+
+    /**
+     * 订阅会话事件
+     *
+     * @param userId      只看某个用户的节点
+     * @param includePing 是否推送ping事件
+     * @return SseEmitter
+     */
+    @GetMapping
+    public SseEmitter stream(
+            @RequestParam(required = false) String userId,
+            @RequestParam(defaultValue = "false") boolean includePing
+    ) {
+        SseEmitter emitter = new SseEmitter(0L);
+        AtomicReference<Runnable> unsubscribe = new AtomicReference<>();
+        unsubscribe.set(SessionEventBus.getInstance().subscribe(event -> {
+            if (userId != null && !userId.equals(event.getUserId())) return;
+            if (!includePing && event.getType() == SessionEvent.Type.PING) return;
+            try {
+                SessionEvent masked = event.toBuilder()
+                        .nodeId(IdMasker.mask(event.getNodeId()))
+                        .userId(IdMasker.mask(event.getUserId()))
+                        .build();
+                emitter.send(SseEmitter.event().name(event.getType().name()).data(masked));
+            } catch (IOException | IllegalStateException e) {
+                unsubscribe.get().run();
+                emitter.completeWithError(e);
+            }
+        }));
+        emitter.onCompletion(() -> unsubscribe.get().run());
+        emitter.onTimeout(() -> unsubscribe.get().run());
+        emitter.onError(e -> unsubscribe.get().run());
+        return emitter;
+    }
+
+    @GetMapping("/counts")
+    public Map<SessionState, Long> counts() {
+        return SessionEventBus.getInstance().liveCounts();
+    }
+}
@@ -0,0 +1,108 @@
+package cn.com.vortexa.aro_network.exec;
+
+import lombok.Getter;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 独立的执行通道，每类任务使用各自的线程和队列，互不抢占
+ * 1.ScheduledLane：固定大小的平台线程定时池，容量为等待中（含定时）任务的上限，用于不阻塞的短任务
+ * 2.VirtualLane：每个任务一个虚拟线程，容量为同时执行的任务上限，用于可能阻塞的任务
+ * 超过容量的任务直接拒绝并计数
+ *
+ * @author helei
+ * @since 2025-10-17
+ */
+public abstract class ExecutionLane implements Executor {
+    @Getter
+    private final String name;
+    @Getter
+    private final int capacity;
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    ExecutionLane(String name, int capacity) {
+        this.name = name;
+        this.capacity = capacity;
+    }
+
+    /**
+     * 平台线程定时通道
+     *
+     * @param name      name
+     * @param threads   线程数
+     * @param maxQueued 等待中（含定时）任务上限
+     * @return ScheduledLane
+     */
+    public static ScheduledLane scheduled(String name, int threads, int maxQueued) {
+        return new ScheduledLane(name, threads, maxQueued);
+    }
+
+    /**
+     * 虚拟线程通道
+     *
+     * @param name          name
+     * @param maxConcurrent 同时执行的任务上限
+     * @return VirtualLane
+     */
+    public static VirtualLane virtual(String name, int maxConcurrent) {
+        return new VirtualLane(name, maxConcurrent);
+    }
+
+    /**
+     * 占用的容量，定时通道为等待执行的任务数，虚拟线程通道为执行中的任务数
+     *
+     * @return depth
+     */
+    public abstract int queueDepth();
+
+    public abstract int activeCount();
+
+    public abstract boolean isShutdown();
+
+    /**
+     * 丢弃未执行的任务
+     *
+     * @return 被丢弃的任务
+     */
+    public abstract List<Runnable> shutdownNow();
+
+    public long completedCount() {
+        return completed.sum();
+    }
+
+    public long rejectedCount() {
+        return rejected.sum();
+    }
+
+    /**
+     * 超过容量时拒绝
+     */
+    void checkCapacity() {
+        if (queueDepth() >= capacity) {
+            throw reject();
+        }
+    }
+
+    Runnable counted(Runnable task) {
+        return () -> {
+            try {
+                task.run();
+            } finally {
+                completed.increment();
+            }
+        };
+    }
+
+    RejectedExecutionException rejected(RejectedExecutionException e) {
+        rejected.increment();
+        return e;
+    }
+
+    RejectedExecutionException reject() {
+        return rejected(new RejectedExecutionException("lane[%s] is full, capacity[%s]".formatted(name, capacity)));
+    }
+}
@@ -0,0 +1,46 @@
+package cn.com.vortexa.aro_network.exec;
+
+import java.util.List;
+
+/**
+ * 各类任务的执行通道
+ * heartbeat、reconnect、ws-open 都是不阻塞的短任务，使用平台线程
+ * query 可能阻塞在请求上，使用虚拟线程
+ * background 为检查点写入、延迟统计等后台任务
+ * coordination 为分片协调的数据库心跳、续期和租约截止检查，两个线程，续期卡在数据库上时截止检查仍能执行
+ * events 为节点日志和会话事件的批量输出，输出到慢订阅者时不影响其他通道
+ * ws-io 为各代理 OkHttp Dispatcher 的执行线程，每个websocket连接的读循环占用一个虚拟线程
+ *
+ * @author helei
+ * @since 2025-10-17
+ */
+public final class ExecutionLanes {
+    public static final ScheduledLane HEARTBEAT = ExecutionLane.scheduled("aro-heartbeat", 2, 200_000);
+    public static final ScheduledLane RECONNECT = ExecutionLane.scheduled("aro-reconnect", 1, 200_000);
+    public static final ScheduledLane WS_OPEN = ExecutionLane.scheduled("aro-ws-open", 1, 200_000);
+    public static final VirtualLane WS_IO = ExecutionLane.virtual("aro-ws-io", 200_000);
+    public static final VirtualLane QUERY = ExecutionLane.virtual("aro-query", 1024);
+    public static final ScheduledLane BACKGROUND = ExecutionLane.scheduled("aro-background", 1, 1024);
+    public static final ScheduledLane COORDINATION = ExecutionLane.scheduled("aro-coordination", 2, 1024);
+    public static final ScheduledLane EVENTS = ExecutionLane.scheduled("aro-events", 1, 16);
+
+    private static final List<ExecutionLane> ALL = List.of(
+            HEARTBEAT, RECONNECT, WS_OPEN, WS_IO, QUERY, BACKGROUND, COORDINATION, EVENTS
+    );
+
+    private ExecutionLanes() {
+    }
+
+    public static List<ExecutionLane> all() {
+        return ALL;
+    }
+
+    /**
+     * 停机时释放所有通道的线程
+     */
+    public static void shutdownAll() {
+        for (ExecutionLane lane : ALL) {
+            lane.shutdownNow();
+        }
+    }
+}
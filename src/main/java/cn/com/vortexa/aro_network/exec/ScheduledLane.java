@@ -0,0 +1,81 @@
+package cn.com.vortexa.aro_network.exec;
+
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 平台线程定时通道，容量为等待中（含定时、周期）任务的上限
+ *
+ * @author helei
+ * @since 2025-10-17
+ */
+public final class ScheduledLane extends ExecutionLane {
+    private final ScheduledThreadPoolExecutor scheduler;
+
+    ScheduledLane(String name, int threads, int maxQueued) {
+        super(name, maxQueued);
+        AtomicInteger threadIdx = new AtomicInteger();
+        this.scheduler = new ScheduledThreadPoolExecutor(threads, r -> {
+            Thread thread = new Thread(r, name + "-" + threadIdx.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduler.setRemoveOnCancelPolicy(true);
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        schedule(task, 0, TimeUnit.MILLISECONDS);
+    }
+
+    public ScheduledFuture<?> schedule(Runnable task, long delay, TimeUnit unit) {
+        checkCapacity();
+        try {
+            return scheduler.schedule(counted(task), delay, unit);
+        } catch (RejectedExecutionException e) {
+            throw rejected(e);
+        }
+    }
+
+    public ScheduledFuture<?> scheduleAtFixedRate(Runnable task, long initialDelay, long period, TimeUnit unit) {
+        checkCapacity();
+        try {
+            return scheduler.scheduleAtFixedRate(counted(task), initialDelay, period, unit);
+        } catch (RejectedExecutionException e) {
+            throw rejected(e);
+        }
+    }
+
+    public ScheduledFuture<?> scheduleWithFixedDelay(Runnable task, long initialDelay, long delay, TimeUnit unit) {
+        checkCapacity();
+        try {
+            return scheduler.scheduleWithFixedDelay(counted(task), initialDelay, delay, unit);
+        } catch (RejectedExecutionException e) {
+            throw rejected(e);
+        }
+    }
+
+    @Override
+    public int queueDepth() {
+        return scheduler.getQueue().size();
+    }
+
+    @Override
+    public int activeCount() {
+        return scheduler.getActiveCount();
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return scheduler.isShutdown();
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        return scheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,108 @@
+package cn.com.vortexa.aro_network.exec;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 虚拟线程通道，每个任务一个虚拟线程，容量为同时执行的任务上限
+ *
+ * @author helei
+ * @since 2025-10-17
+ */
+public final class VirtualLane extends ExecutionLane {
+    private final ExecutorService executor;
+    private final AtomicInteger inFlight = new AtomicInteger(0);
+
+    VirtualLane(String name, int maxConcurrent) {
+        super(name, maxConcurrent);
+        this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(name + "-", 0).factory());
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        if (inFlight.incrementAndGet() > getCapacity()) {
+            inFlight.decrementAndGet();
+            throw reject();
+        }
+        Runnable counted = counted(task);
+        try {
+            executor.execute(() -> {
+                try {
+                    counted.run();
+                } finally {
+                    inFlight.decrementAndGet();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.decrementAndGet();
+            throw rejected(e);
+        }
+    }
+
+    /**
+     * 供只接受 ExecutorService 的组件使用（如 OkHttp Dispatcher），提交的任务同样受通道容量限制
+     *
+     * @return ExecutorService
+     */
+    public ExecutorService asExecutorService() {
+        return new AbstractExecutorService() {
+            @Override
+            public void execute(@NotNull Runnable command) {
+                VirtualLane.this.execute(command);
+            }
+
+            @Override
+            public void shutdown() {
+                executor.shutdown();
+            }
+
+            @NotNull
+            @Override
+            public List<Runnable> shutdownNow() {
+                return VirtualLane.this.shutdownNow();
+            }
+
+            @Override
+            public boolean isShutdown() {
+                return executor.isShutdown();
+            }
+
+            @Override
+            public boolean isTerminated() {
+                return executor.isTerminated();
+            }
+
+            @Override
+            public boolean awaitTermination(long timeout, @NotNull TimeUnit unit) throws InterruptedException {
+                return executor.awaitTermination(timeout, unit);
+            }
+        };
+    }
+
+    @Override
+    public int queueDepth() {
+        return inFlight.get();
+    }
+
+    @Override
+    public int activeCount() {
+        return inFlight.get();
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return executor.isShutdown();
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        return executor.shutdownNow();
+    }
+}
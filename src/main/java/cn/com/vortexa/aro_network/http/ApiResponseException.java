@@ -0,0 +1,19 @@
+package cn.com.vortexa.aro_network.http;
+
+import lombok.Getter;
+
+/**
+ * 接口返回了非成功的业务码，区别于网络、代理等请求异常
+ *
+ * @author helei
+ * @since 2025-10-18
+ */
+@Getter
+public class ApiResponseException extends RuntimeException {
+    private final Integer code;
+
+    public ApiResponseException(Integer code, String message) {
+        super(message);
+        this.code = code;
+    }
+}
@@ -0,0 +1,181 @@
+package cn.com.vortexa.aro_network.http;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 有界并发的异步请求执行器
+ * 1.按 limitKey（一般为代理）限制并发，同时限制全局并发
+ * 2.超时：超时只让调用方提前拿到 TimeoutException，名额一直占用到真实请求结束，
+ *   避免超时的请求在后台继续运行时又放进新的请求，实际并发超过限制
+ * 3.coalesceKey 相同的请求在执行中时合并为一个
+ * 请求在传入的 executor 上发起，不占用提交方或回调方的线程
+ *
+ * @author helei
+ * @since 2025-10-09
+ */
+public class BoundedRequestExecutor {
+    private static final Object NULL_KEY = new Object();
+
+    private final int globalLimit;
+    private final int perKeyLimit;
+    private final long timeoutMillis;
+    private final Executor executor;
+
+    private final Map<Object, Lane> lanes = new HashMap<>();
+    private final Queue<Lane> readyLanes = new ArrayDeque<>();
+    private int globalInFlight = 0;
+    private final Map<Object, CompletableFuture<?>> coalescing = new ConcurrentHashMap<>();
+
+    public BoundedRequestExecutor(int globalLimit, int perKeyLimit, long timeout, TimeUnit timeUnit, Executor executor) {
+        if (globalLimit <= 0 || perKeyLimit <= 0) {
+            throw new IllegalArgumentException("limit must be positive");
+        }
+        this.globalLimit = globalLimit;
+        this.perKeyLimit = perKeyLimit;
+        this.timeoutMillis = timeUnit.toMillis(timeout);
+        this.executor = executor;
+    }
+
+    /**
+     * 提交请求
+     *
+     * @param limitKey    限流key，可以为空
+     * @param coalesceKey 合并key，为空不合并
+     * @param call        发起请求
+     * @return 请求结果
+     */
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<T> submit(Object limitKey, Object coalesceKey, Supplier<CompletableFuture<T>> call) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        if (coalesceKey != null) {
+            CompletableFuture<T> running = (CompletableFuture<T>) coalescing.putIfAbsent(coalesceKey, result);
+            if (running != null) {
+                return running.copy();
+            }
+            result.whenComplete((r, e) -> coalescing.remove(coalesceKey, result));
+        }
+
+        enqueue(new Task<>(limitKey == null ? NULL_KEY : limitKey, call, result));
+        return result.copy();
+    }
+
+    public synchronized int inFlight() {
+        return globalInFlight;
+    }
+
+    public synchronized int waiting() {
+        int count = 0;
+        for (Lane lane : lanes.values()) {
+            count += lane.waiting.size();
+        }
+        return count;
+    }
+
+    private void enqueue(Task<?> task) {
+        synchronized (this) {
+            Lane lane = lanes.computeIfAbsent(task.limitKey, Lane::new);
+            lane.waiting.offer(task);
+            markReady(lane);
+        }
+        drain();
+    }
+
+    private void drain() {
+        while (true) {
+            Task<?> task;
+            synchronized (this) {
+                if (globalInFlight >= globalLimit) return;
+                Lane lane = readyLanes.poll();
+                if (lane == null) return;
+                lane.ready = false;
+                task = lane.waiting.poll();
+                if (task == null) continue;
+
+                lane.inFlight++;
+                globalInFlight++;
+                markReady(lane);   // 轮询各个key，避免单个代理占满全局名额
+            }
+            try {
+                executor.execute(task::start);
+            } catch (RejectedExecutionException e) {
+                task.fail(e);
+            }
+        }
+    }
+
+    private void markReady(Lane lane) {
+        if (!lane.ready && !lane.waiting.isEmpty() && lane.inFlight < perKeyLimit) {
+            lane.ready = true;
+            readyLanes.offer(lane);
+        }
+    }
+
+    private void finish(Object limitKey) {
+        synchronized (this) {
+            globalInFlight--;
+            Lane lane = lanes.get(limitKey);
+            lane.inFlight--;
+            if (lane.inFlight == 0 && lane.waiting.isEmpty()) {
+                lanes.remove(limitKey);
+            } else {
+                markReady(lane);
+            }
+        }
+        drain();
+    }
+
+    private static final class Lane {
+        private final Object key;
+        private final Queue<Task<?>> waiting = new ArrayDeque<>();
+        private int inFlight = 0;
+        private boolean ready = false;
+
+        private Lane(Object key) {
+            this.key = key;
+        }
+    }
+
+    private final class Task<T> {
+        private final Object limitKey;
+        private final Supplier<CompletableFuture<T>> call;
+        private final CompletableFuture<T> result;
+
+        private Task(Object limitKey, Supplier<CompletableFuture<T>> call, CompletableFuture<T> result) {
+            this.limitKey = limitKey;
+            this.call = call;
+            this.result = result;
+        }
+
+        private void fail(Throwable e) {
+            finish(limitKey);
+            result.completeExceptionally(e);
+        }
+
+        private void start() {
+            CompletableFuture<T> future;
+            try {
+                future = call.get();
+            } catch (Exception e) {
+                future = CompletableFuture.failedFuture(e);
+            }
+            result.orTimeout(timeoutMillis, TimeUnit.MILLISECONDS);
+            future.whenComplete((r, e) -> {
+                finish(limitKey);
+                if (e != null) {
+                    result.completeExceptionally(e);
+                } else {
+                    result.complete(r);
+                }
+            });
+        }
+    }
+}
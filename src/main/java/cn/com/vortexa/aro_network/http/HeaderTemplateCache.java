@@ -0,0 +1,85 @@
+package cn.com.vortexa.aro_network.http;
+
+import cn.com.vortexa.common.interfaces.SystemProxy;
+
+import java.lang.ref.WeakReference;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 鉴权请求头模板，按token缓存请求头
+ * 1.token变化即换key，只有新token会重新构建，旧token由调用方 invalidate
+ * 2.代理变化（按 equals）时重建
+ * 3.账户上下文换了实例（账户被重新加载，user-agent 等可能变化）时重建，
+ * 账户重新启动时调用方也会 invalidate
+ * 4.超过最大存活时间重建
+ * 返回的是模板本身，只读且被同一token的所有请求共享，命中时不复制
+ *
+ * @author helei
+ * @since 2025-10-13
+ */
+public class HeaderTemplateCache {
+    public static final int DEFAULT_MAX_SIZE = 10_000;
+    public static final long DEFAULT_MAX_AGE_MINUTES = 10;
+
+    private final long maxAgeMillis;
+    private final Map<String, Template> templates;
+
+    public HeaderTemplateCache(int maxSize, long maxAge, TimeUnit timeUnit) {
+        this.maxAgeMillis = timeUnit.toMillis(maxAge);
+        this.templates = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Template> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * 获取鉴权请求头
+     *
+     * @param token      token
+     * @param proxy      账户当前代理
+     * @param owner      构建请求头的账户上下文，只比较是否同一个实例
+     * @param headerBase 构建不含token的请求头
+     * @param authKey    token的header key
+     * @return 只读的请求头模板，调用方不能修改
+     */
+    public Map<String, String> authHeaders(
+            String token, SystemProxy proxy, Object owner, Supplier<Map<String, String>> headerBase, String authKey
+    ) {
+        long now = System.currentTimeMillis();
+        synchronized (templates) {
+            Template template = templates.get(token);
+            if (template != null && template.matches(proxy, owner) && now - template.createdAt < maxAgeMillis) {
+                return template.headers;
+            }
+        }
+
+        Map<String, String> headers = new HashMap<>(headerBase.get());
+        headers.put(authKey, token);
+        Template template = new Template(proxy, new WeakReference<>(owner), Collections.unmodifiableMap(headers), now);
+        synchronized (templates) {
+            templates.put(token, template);
+        }
+        return template.headers;
+    }
+
+    public void invalidate(String token) {
+        if (token == null) return;
+        synchronized (templates) {
+            templates.remove(token);
+        }
+    }
+
+    private record Template(SystemProxy proxy, WeakReference<Object> owner, Map<String, String> headers, long createdAt) {
+        private boolean matches(SystemProxy proxy, Object owner) {
+            return Objects.equals(this.proxy, proxy) && this.owner.get() == owner;
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package cn.com.vortexa.aro_network.lifecycle;
+
+import cn.com.vortexa.aro_network.checkpoint.SessionCheckpointStore;
+import cn.com.vortexa.aro_network.event.SessionEventBus;
+import cn.com.vortexa.aro_network.exec.ExecutionLanes;
+import cn.com.vortexa.aro_network.log.NodeEventLogFlusher;
+import cn.com.vortexa.aro_network.monitor.AROClientRegistry;
+import cn.com.vortexa.aro_network.shard.ShardCoordinator;
+import cn.com.vortexa.aro_network.websocket.AROClient;
+import cn.com.vortexa.aro_network.websocket.HeartbeatScheduler;
+import cn.com.vortexa.aro_network.websocket.ProxyConnectionManager;
+import cn.com.vortexa.aro_network.websocket.ReconnectScheduler;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 节点会话的停机流程，在web服务停止前执行
+ * 1.取消周期任务，停止接受新的启动和握手，丢弃排队中的握手，暂停分片续期和接管
+ * 2.丢弃等待中的重连，停止心跳
+ * 3.写入会话检查点
+ * 4.分批并行关闭连接，超过期限不再等待
+ * 5.输出剩余的节点日志和会话事件
+ * 6.释放执行通道（含 ws-io、events、coordination）和连接池
+ * 执行通道是静态共享的，释放后不能重建，因此停止后不支持再次启动
+ *
+ * @author helei
+ * @since 2025-10-17
+ */
+@Slf4j
+@Component
+public class SessionLifecycleManager implements SmartLifecycle {
+    private static final int CLOSE_BATCH_SIZE = 500;
+    private static final int CLOSE_THREADS = 8;
+
+    private static volatile boolean accepting = true;
+    private static final List<ScheduledFuture<?>> periodicTasks = new CopyOnWriteArrayList<>();
+
+    private final long shutdownTimeoutMillis;
+    private volatile boolean running = false;
+    private volatile boolean stopped = false;
+
+    public SessionLifecycleManager(@Value("${aro.shutdown.timeout-seconds:15}") long shutdownTimeoutSeconds) {
+        this.shutdownTimeoutMillis = TimeUnit.SECONDS.toMillis(shutdownTimeoutSeconds);
+    }
+
+    /**
+     * 是否还能启动新的节点会话
+     *
+     * @return false表示正在停机
+     */
+    public static boolean isAccepting() {
+        return accepting;
+    }
+
+    /**
+     * 注册随停机取消的周期任务，在 background 通道定时触发，任务本身在 query 通道执行（可能阻塞在数据库或请求上），
+     * 上一次还没结束时跳过本次
+     *
+     * @param name     name
+     * @param task     task
+     * @param interval interval
+     * @param unit     unit
+     */
+    public static void schedulePeriodic(String name, Runnable task, long interval, TimeUnit unit) {
+        AtomicBoolean running = new AtomicBoolean(false);
+        periodicTasks.add(ExecutionLanes.BACKGROUND.scheduleWithFixedDelay(() -> {
+            if (!accepting || !running.compareAndSet(false, true)) return;
+            try {
+                ExecutionLanes.QUERY.execute(() -> {
+                    try {
+                        task.run();
+                    } catch (Exception e) {
+                        log.error("periodic task[{}] error", name, e);
+                    } finally {
+                        running.set(false);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                running.set(false);
+                log.warn("periodic task[{}] rejected, {}", name, e.getMessage());
+            }
+        }, interval, interval, unit));
+    }
+
+    @Override
+    public void start() {
+        if (stopped) {
+            throw new IllegalStateException("aro sessions can not be restarted after stop, execution lanes are released");
+        }
+        accepting = true;
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        if (!running) return;
+        running = false;
+        stopped = true;
+        accepting = false;
+        long start = System.currentTimeMillis();
+
+        periodicTasks.forEach(task -> task.cancel(false));
+        periodicTasks.clear();
+        int droppedOpens = ProxyConnectionManager.getInstance().stopAccepting();
+        ShardCoordinator shardCoordinator = ShardCoordinator.current();
+        if (shardCoordinator != null) {
+            // 租约在 ShardCoordinator 销毁时释放
+            shardCoordinator.suspend();
+        }
+        int droppedReconnects = ReconnectScheduler.getInstance().shutdown();
+        HeartbeatScheduler.getInstance().shutdown();
+
+        SessionCheckpointStore checkpointStore = SessionCheckpointStore.getInstance();
+        try {
+            checkpointStore.flush();
+        } catch (Exception e) {
+            log.error("flush session checkpoint error", e);
+        }
+        checkpointStore.close();
+
+        List<AROClient> clients = new ArrayList<>(AROClientRegistry.getInstance().clients());
+        int unfinished = closeAll(clients, start + shutdownTimeoutMillis);
+        ProxyConnectionManager.getInstance().shutdown();
+        try {
+            NodeEventLogFlusher.getInstance().flush();
+            SessionEventBus.getInstance().dispatchPending();
+        } catch (Exception e) {
+            log.error("flush session events error", e);
+        }
+        ExecutionLanes.shutdownAll();
+
+        log.info("aro sessions stopped in {}ms, sessions[{}] unfinished[{}] dropped opens[{}] dropped reconnects[{}]",
+                System.currentTimeMillis() - start, clients.size(), unfinished, droppedOpens, droppedReconnects);
+    }
+
+    /**
+     * 分批并行关闭
+     *
+     * @return 期限内没有关闭完的批次中的会话数
+     */
+    private int closeAll(List<AROClient> clients, long deadline) {
+        if (clients.isEmpty()) return 0;
+        int batches = (clients.size() + CLOSE_BATCH_SIZE - 1) / CLOSE_BATCH_SIZE;
+        CountDownLatch latch = new CountDownLatch(batches);
+        AtomicInteger closed = new AtomicInteger(0);
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(CLOSE_THREADS, batches), r -> {
+            Thread thread = new Thread(r, "aro-session-close");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            for (int from = 0; from < clients.size(); from += CLOSE_BATCH_SIZE) {
+                List<AROClient> batch = clients.subList(from, Math.min(clients.size(), from + CLOSE_BATCH_SIZE));
+                executor.execute(() -> {
+                    try {
+                        for (AROClient client : batch) {
+                            if (System.currentTimeMillis() > deadline) return;
+                            try {
+                                client.shutdown();
+                                closed.incrementAndGet();
+                            } catch (Exception e) {
+                                log.warn("close node[{}] error", client.getNodeId(), e);
+                            }
+                        }
+                    } finally {
+                        latch.countDown();
+                    }
+                });
+            }
+            if (!latch.await(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS)) {
+                log.warn("close sessions timeout");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            executor.shutdownNow();
+        }
+        return clients.size() - closed.get();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE;
+    }
+}
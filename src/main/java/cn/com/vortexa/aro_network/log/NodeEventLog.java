@@ -0,0 +1,197 @@
+package cn.com.vortexa.aro_network.log;
+
+import cn.com.vortexa.aro_network.config.AroConfig;
+import cn.com.vortexa.base.util.log.AppendLogger;
+import lombok.Getter;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 节点事件日志，只记录模板和参数，格式化推迟到真正输出时
+ * 1.最近的事件保存在固定大小的环形缓冲中，用于排查问题；参数只保存字符串引用和原始类型的数值，
+ * 不拼接、不截断，也不装箱计数，截断和格式化都在输出时进行
+ * 2.事件交给 NodeEventLogFlusher 异步批量输出到账户日志，记录时先看账户日志是否开启debug，
+ * 未开启时debug事件只进环形缓冲，不进入输出队列
+ * 模板中的 %s 依次对应文本参数和数值参数
+ *
+ * @author helei
+ * @since 2025-10-17
+ */
+public final class NodeEventLog {
+    public static final String CAPACITY_KEY = "aro.node-log.capacity";
+    public static final int DEFAULT_CAPACITY = AroConfig.getInt(CAPACITY_KEY, 32);
+    /**
+     * 输出时文本参数的最大长度，超出部分截断
+     */
+    public static final int MAX_TEXT_LENGTH = 64;
+    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter
+            .ofPattern("yyyy-MM-dd HH:mm:ss.SSS")
+            .withZone(ZoneId.systemDefault());
+
+    private static final byte HAS_FIRST = 1;
+    private static final byte HAS_SECOND = 2;
+    private static final byte HAS_VALUE = 4;
+
+    public enum Level {
+        DEBUG, INFO, WARN
+    }
+
+    @Getter
+    private final String nodeId;
+    private final AppendLogger sink;
+    private final int mask;
+    private final long[] times;
+    private final Level[] levels;
+    private final String[] templates;
+    private final byte[] shapes;
+    private final String[] firstTexts;
+    private final String[] secondTexts;
+    private final long[] values;
+    private long next = 0;
+
+    /**
+     * @param nodeId   nodeId
+     * @param sink     账户的日志，多个节点共享，输出时带上节点前缀
+     * @param capacity 环形缓冲大小，向上取2的幂
+     */
+    public NodeEventLog(String nodeId, AppendLogger sink, int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.nodeId = nodeId;
+        this.sink = sink;
+        this.mask = size - 1;
+        this.times = new long[size];
+        this.levels = new Level[size];
+        this.templates = new String[size];
+        this.shapes = new byte[size];
+        this.firstTexts = new String[size];
+        this.secondTexts = new String[size];
+        this.values = new long[size];
+    }
+
+    public static NodeEventLog of(String nodeId, AppendLogger sink) {
+        return new NodeEventLog(nodeId, sink, DEFAULT_CAPACITY);
+    }
+
+    public void debug(String template) {
+        record(Level.DEBUG, template, (byte) 0, null, null, 0);
+    }
+
+    public void debug(String template, String text) {
+        record(Level.DEBUG, template, HAS_FIRST, text, null, 0);
+    }
+
+    public void debug(String template, String first, String second) {
+        record(Level.DEBUG, template, (byte) (HAS_FIRST | HAS_SECOND), first, second, 0);
+    }
+
+    public void debug(String template, long value) {
+        record(Level.DEBUG, template, HAS_VALUE, null, null, value);
+    }
+
+    public void info(String template) {
+        record(Level.INFO, template, (byte) 0, null, null, 0);
+    }
+
+    public void info(String template, String text) {
+        record(Level.INFO, template, HAS_FIRST, text, null, 0);
+    }
+
+    public void info(String template, long value) {
+        record(Level.INFO, template, HAS_VALUE, null, null, value);
+    }
+
+    public void warn(String template) {
+        record(Level.WARN, template, (byte) 0, null, null, 0);
+    }
+
+    public void warn(String template, String text) {
+        record(Level.WARN, template, HAS_FIRST, text, null, 0);
+    }
+
+    public void warn(String template, long value) {
+        record(Level.WARN, template, HAS_VALUE, null, null, value);
+    }
+
+    public void warn(String template, String first, String second) {
+        record(Level.WARN, template, (byte) (HAS_FIRST | HAS_SECOND), first, second, 0);
+    }
+
+    public void warn(String template, String text, long value) {
+        record(Level.WARN, template, (byte) (HAS_FIRST | HAS_VALUE), text, null, value);
+    }
+
+    /**
+     * 缓冲中的事件，从旧到新，此时才格式化
+     *
+     * @return lines
+     */
+    public List<String> snapshot() {
+        List<String> lines;
+        synchronized (this) {
+            long start = Math.max(0, next - times.length);
+            lines = new ArrayList<>((int) (next - start));
+            for (long seq = start; seq < next; seq++) {
+                int i = (int) (seq & mask);
+                lines.add(TIME_FORMATTER.format(Instant.ofEpochMilli(times[i])) + " " + levels[i] + " "
+                        + format(templates[i], shapes[i], firstTexts[i], secondTexts[i], values[i]));
+            }
+        }
+        return lines;
+    }
+
+    private void record(Level level, String template, byte shape, String first, String second, long value) {
+        long now = System.currentTimeMillis();
+        synchronized (this) {
+            int i = (int) (next++ & mask);
+            times[i] = now;
+            levels[i] = level;
+            templates[i] = template;
+            shapes[i] = shape;
+            firstTexts[i] = first;
+            secondTexts[i] = second;
+            values[i] = value;
+        }
+        if (level == Level.DEBUG && !sink.isDebugEnabled()) {
+            return;
+        }
+        NodeEventLogFlusher.getInstance().offer(
+                new NodeEventLogFlusher.Entry(this, level, template, shape, first, second, value)
+        );
+    }
+
+    /**
+     * 由 NodeEventLogFlusher 调用
+     */
+    void write(Level level, String message) {
+        String line = "node[" + nodeId + "] " + message;
+        switch (level) {
+            case DEBUG -> sink.debug(line);
+            case INFO -> sink.info(line);
+            case WARN -> sink.warn(line);
+        }
+    }
+
+    /**
+     * 截断过长的文本，只在格式化时调用
+     */
+    static String cap(String text) {
+        if (text == null) return "null";
+        if (text.length() <= MAX_TEXT_LENGTH) return text;
+        return text.substring(0, MAX_TEXT_LENGTH) + "...(" + text.length() + ")";
+    }
+
+    static String format(String template, byte shape, String first, String second, long value) {
+        return switch (shape) {
+            case 0 -> template;
+            case HAS_FIRST -> String.format(template, cap(first));
+            case HAS_FIRST | HAS_SECOND -> String.format(template, cap(first), cap(second));
+            case HAS_VALUE -> String.format(template, value);
+            case HAS_FIRST | HAS_VALUE -> String.format(template, cap(first), value);
+            default -> throw new IllegalArgumentException("unknown shape " + shape);
+        };
+    }
+}
@@ -0,0 +1,86 @@
+package cn.com.vortexa.aro_network.log;
+
+import cn.com.vortexa.aro_network.exec.ExecutionLanes;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 节点事件的异步输出，在 events 通道上定时批量取出后再格式化写入账户日志
+ * 队列满时丢弃，事件仍保留在节点的环形缓冲中；队列超过水位线后先丢弃debug事件，保证info/warn能输出
+ * 账户日志未开启debug时，debug事件在记录时就已过滤，不会进入这里的队列
+ *
+ * @author helei
+ * @since 2025-10-17
+ */
+@Slf4j
+public final class NodeEventLogFlusher {
+    private static final int QUEUE_CAPACITY = 8192;
+    private static final int BATCH_SIZE = 256;
+    private static final int DEBUG_WATERMARK = QUEUE_CAPACITY / 2;
+    private static final long FLUSH_INTERVAL_MILLIS = 100;
+    private static final NodeEventLogFlusher INSTANCE = new NodeEventLogFlusher();
+
+    private final BlockingQueue<Entry> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final AtomicLong dropped = new AtomicLong(0);
+
+    private NodeEventLogFlusher() {
+        ExecutionLanes.EVENTS.scheduleWithFixedDelay(
+                this::flush, FLUSH_INTERVAL_MILLIS, FLUSH_INTERVAL_MILLIS, TimeUnit.MILLISECONDS
+        );
+    }
+
+    public static NodeEventLogFlusher getInstance() {
+        return INSTANCE;
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    public int pending() {
+        return queue.size();
+    }
+
+    void offer(Entry entry) {
+        if (entry.level == NodeEventLog.Level.DEBUG && queue.size() >= DEBUG_WATERMARK) {
+            dropped.incrementAndGet();
+            return;
+        }
+        if (!queue.offer(entry)) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    /**
+     * 输出当前队列中的事件，之后新进入的事件留给下一次
+     */
+    public synchronized void flush() {
+        List<Entry> batch = new ArrayList<>(BATCH_SIZE);
+        int remaining = queue.size();
+        while (remaining > 0 && queue.drainTo(batch, Math.min(BATCH_SIZE, remaining)) > 0) {
+            remaining -= batch.size();
+            for (Entry entry : batch) {
+                try {
+                    entry.source.write(entry.level, NodeEventLog.format(
+                            entry.template, entry.shape, entry.first, entry.second, entry.value
+                    ));
+                } catch (Exception e) {
+                    log.error("write node[{}] log error", entry.source.getNodeId(), e);
+                }
+            }
+            batch.clear();
+        }
+    }
+
+    record Entry(
+            NodeEventLog source, NodeEventLog.Level level, String template,
+            byte shape, String first, String second, long value
+    ) {
+    }
+}
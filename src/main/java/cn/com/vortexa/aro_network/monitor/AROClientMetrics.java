@@ -0,0 +1,82 @@
+package cn.com.vortexa.aro_network.monitor;
+
+import cn.com.vortexa.aro_network.event.SessionEventBus;
+import cn.com.vortexa.aro_network.websocket.AROClient;
+import cn.com.vortexa.aro_network.websocket.HeartbeatScheduler;
+import cn.com.vortexa.aro_network.websocket.ProxyConnectionManager;
+import cn.com.vortexa.aro_network.websocket.ReconnectScheduler;
+import cn.com.vortexa.aro_network.websocket.SessionState;
+import cn.com.vortexa.aro_network.websocket.SessionTotals;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.stereotype.Component;
+
+/**
+ * AROClient 相关的 Micrometer 指标
+ *
+ * @author helei
+ * @since 2025-10-07
+ */
+@Component
+public class AROClientMetrics implements MeterBinder {
+
+    @Override
+    public void bindTo(@NotNull MeterRegistry registry) {
+        AROClientRegistry clientRegistry = AROClientRegistry.getInstance();
+
+        for (SessionState state : SessionState.values()) {
+            Gauge.builder("aro.sessions", SessionEventBus.getInstance(), bus -> bus.count(state))
+                    .tag("state", state.name())
+                    .description("aro sessions by state")
+                    .register(registry);
+        }
+        // 累计值在会话移除后仍保留，按计数器导出，速率不会因为会话关闭而出现负值
+        SessionTotals totals = SessionTotals.getInstance();
+        FunctionCounter.builder("aro.sessions.pings", totals, SessionTotals::getPings)
+                .description("pings sent by all sessions")
+                .register(registry);
+        FunctionCounter.builder("aro.sessions.reconnects", totals, SessionTotals::getReconnects)
+                .description("reconnects of all sessions")
+                .register(registry);
+        FunctionCounter.builder("aro.sessions.bytes", totals, SessionTotals::getBytesIn)
+                .tag("direction", "in")
+                .baseUnit("bytes")
+                .register(registry);
+        FunctionCounter.builder("aro.sessions.bytes", totals, SessionTotals::getBytesOut)
+                .tag("direction", "out")
+                .baseUnit("bytes")
+                .register(registry);
+
+        // 按会话打标签的指标数量过多，这里只导出合计和最大值，单个会话见 /aro/sessions
+        Gauge.builder("aro.ws.send.queue", clientRegistry, r -> r.sum(AROClient::getSendQueueBytes))
+                .tag("stat", "total")
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("aro.ws.send.queue", clientRegistry, r -> r.max(AROClient::getSendQueueBytes))
+                .tag("stat", "max")
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("aro.ws.send.skipped", clientRegistry, r -> r.sum(AROClient::getSkippedSends))
+                .description("heartbeats skipped because the send queue was not empty")
+                .register(registry);
+        Gauge.builder("aro.ws.send.rejected", clientRegistry, r -> r.sum(AROClient::getSendRejects))
+                .description("sends rejected by a closed or overloaded connection")
+                .register(registry);
+
+        Gauge.builder("aro.heartbeat.registered", HeartbeatScheduler.getInstance(), HeartbeatScheduler::registeredCount)
+                .register(registry);
+        Gauge.builder("aro.reconnect.pending", ReconnectScheduler.getInstance(), ReconnectScheduler::pendingCount)
+                .register(registry);
+        Gauge.builder("aro.ws.open.pending", ProxyConnectionManager.getInstance(), ProxyConnectionManager::pendingOpens)
+                .register(registry);
+
+        clientRegistry.bindAuthLatencyTimer(Timer.builder("aro.auth.latency")
+                .description("connect frame to auth event round trip")
+                .publishPercentiles(0.5, 0.99)
+                .register(registry));
+    }
+}
@@ -0,0 +1,138 @@
+package cn.com.vortexa.aro_network.monitor;
+
+import cn.com.vortexa.aro_network.websocket.AROClient;
+import cn.com.vortexa.aro_network.websocket.SessionState;
+import cn.com.vortexa.aro_network.proxy.ProxyKeys;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToLongFunction;
+
+/**
+ * 运行中的 AROClient 注册表
+ *
+ * @author helei
+ * @since 2025-10-07
+ */
+public class AROClientRegistry {
+    private static final AROClientRegistry INSTANCE = new AROClientRegistry();
+
+    private final Map<String, AROClient> clients = new ConcurrentHashMap<>();
+    private volatile Timer authLatencyTimer;
+
+    public static AROClientRegistry getInstance() {
+        return INSTANCE;
+    }
+
+    public void register(AROClient client) {
+        clients.put(client.getNodeId(), client);
+    }
+
+    public void unregister(AROClient client) {
+        clients.remove(client.getNodeId(), client);
+    }
+
+    public AROClient get(String nodeId) {
+        return clients.get(nodeId);
+    }
+
+    public Collection<AROClient> clients() {
+        return clients.values();
+    }
+
+    public int size() {
+        return clients.size();
+    }
+
+    public long count(SessionState state) {
+        long count = 0;
+        for (AROClient client : clients.values()) {
+            if (client.getState() == state) count++;
+        }
+        return count;
+    }
+
+    public Map<SessionState, Long> countByState() {
+        Map<SessionState, Long> counts = new EnumMap<>(SessionState.class);
+        for (SessionState state : SessionState.values()) {
+            counts.put(state, 0L);
+        }
+        for (AROClient client : clients.values()) {
+            counts.merge(client.getState(), 1L, Long::sum);
+        }
+        return counts;
+    }
+
+    public long max(ToLongFunction<AROClient> getter) {
+        long max = 0;
+        for (AROClient client : clients.values()) {
+            max = Math.max(max, getter.applyAsLong(client));
+        }
+        return max;
+    }
+
+    public long sum(ToLongFunction<AROClient> getter) {
+        long sum = 0;
+        for (AROClient client : clients.values()) {
+            sum += getter.applyAsLong(client);
+        }
+        return sum;
+    }
+
+    /**
+     * 会话快照
+     *
+     * @param state 为空不过滤
+     * @param limit 最大条数
+     * @return list
+     */
+    public List<SessionSnapshot> snapshot(SessionState state, int limit) {
+        List<SessionSnapshot> list = new ArrayList<>(Math.min(limit, clients.size()));
+        for (AROClient client : clients.values()) {
+            if (list.size() >= limit) break;
+            if (state == null || client.getState() == state) {
+                list.add(snapshot(client));
+            }
+        }
+        return list;
+    }
+
+    /**
+     * 对外展示的快照，userId、nodeId 已脱敏
+     */
+    public static SessionSnapshot snapshot(AROClient client) {
+        return SessionSnapshot.builder()
+                .nodeId(IdMasker.mask(client.getNodeId()))
+                .userId(IdMasker.mask(client.getUserId()))
+                .proxy(ProxyKeys.label(client.getProxy()))
+                .state(client.getState())
+                .openTime(client.getOpenTime())
+                .lastAuthLatencyMillis(client.getLastAuthLatencyMillis())
+                .pingCount(client.getPintCount())
+                .reconnectCount(client.getReconnectCount())
+                .bytesIn(client.getBytesIn())
+                .bytesOut(client.getBytesOut())
+                .sendQueueBytes(client.getSendQueueBytes())
+                .skippedSends(client.getSkippedSends())
+                .sendRejects(client.getSendRejects())
+                .lastCloseReason(client.getLastCloseReason())
+                .build();
+    }
+
+    public void recordAuthLatency(long millis) {
+        Timer timer = authLatencyTimer;
+        if (timer != null) {
+            timer.record(millis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    void bindAuthLatencyTimer(Timer timer) {
+        this.authLatencyTimer = timer;
+    }
+}
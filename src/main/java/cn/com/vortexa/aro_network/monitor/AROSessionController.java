@@ -0,0 +1,68 @@
+package cn.com.vortexa.aro_network.monitor;
+
+import cn.com.vortexa.aro_network.websocket.AROClient;
+import cn.com.vortexa.aro_network.websocket.SessionState;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 节点会话查询接口
+ * userId + nodeId 即为节点的鉴权凭据，返回内容中的id均已脱敏，按nodeId查询需要调用方自己知道完整id
+ *
+ * @author helei
+ * @since 2025-10-07
+ */
+@RestController
+@RequestMapping("/aro/sessions")
+public class AROSessionController {
+
+    @GetMapping
+    public List<SessionSnapshot> list(
+            @RequestParam(required = false) SessionState state,
+            @RequestParam(defaultValue = "200") int limit
+    ) {
+        return AROClientRegistry.getInstance().snapshot(state, limit);
+    }
+
+    @GetMapping("/summary")
+    public Map<String, Object> summary() {
+        AROClientRegistry registry = AROClientRegistry.getInstance();
+        Map<String, Object> summary = new HashMap<>();
+        summary.put("total", registry.size());
+        summary.put("states", registry.countByState());
+        summary.put("pings", registry.sum(AROClient::getPintCount));
+        summary.put("reconnects", registry.sum(AROClient::getReconnectCount));
+        summary.put("bytesIn", registry.sum(AROClient::getBytesIn));
+        summary.put("bytesOut", registry.sum(AROClient::getBytesOut));
+        return summary;
+    }
+
+    @GetMapping("/{nodeId}")
+    public SessionSnapshot get(@PathVariable String nodeId) {
+        AROClient client = AROClientRegistry.getInstance().get(nodeId);
+        if (client == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "node[%s] not running".formatted(nodeId));
+        }
+        return AROClientRegistry.snapshot(client);
+    }
+
+    @GetMapping("/{nodeId}/log")
+    public List<String> log(@PathVariable String nodeId) {
+        AROClient client = AROClientRegistry.getInstance().get(nodeId);
+        if (client == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "node[%s] not running".formatted(nodeId));
+        }
+        return client.getEventLog().snapshot().stream()
+                .map(line -> IdMasker.maskIn(line, client.getNodeId(), client.getUserId()))
+                .toList();
+    }
+}
@@ -0,0 +1,44 @@
+package cn.com.vortexa.aro_network.monitor;
+
+import cn.com.vortexa.aro_network.exec.ExecutionLane;
+import cn.com.vortexa.aro_network.exec.ExecutionLanes;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.stereotype.Component;
+
+/**
+ * 执行通道指标
+ *
+ * @author helei
+ * @since 2025-10-17
+ */
+@Component
+public class ExecutionLaneMetrics implements MeterBinder {
+
+    @Override
+    public void bindTo(@NotNull MeterRegistry registry) {
+        for (ExecutionLane lane : ExecutionLanes.all()) {
+            Gauge.builder("aro.lane.queue", lane, ExecutionLane::queueDepth)
+                    .tag("lane", lane.getName())
+                    .description("tasks waiting in lane")
+                    .register(registry);
+            Gauge.builder("aro.lane.capacity", lane, ExecutionLane::getCapacity)
+                    .tag("lane", lane.getName())
+                    .description("max queued tasks of scheduled lane, max running tasks of virtual lane")
+                    .register(registry);
+            Gauge.builder("aro.lane.active", lane, ExecutionLane::activeCount)
+                    .tag("lane", lane.getName())
+                    .register(registry);
+            FunctionCounter.builder("aro.lane.completed", lane, ExecutionLane::completedCount)
+                    .tag("lane", lane.getName())
+                    .register(registry);
+            FunctionCounter.builder("aro.lane.rejected", lane, ExecutionLane::rejectedCount)
+                    .tag("lane", lane.getName())
+                    .description("tasks rejected because lane was full or stopped")
+                    .register(registry);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package cn.com.vortexa.aro_network.monitor;
+
+/**
+ * 对外接口中的 userId、nodeId 脱敏，二者组合即为 websocket 的鉴权凭据
+ * 保留首尾各4位便于对照日志
+ *
+ * @author helei
+ * @since 2025-10-18
+ */
+public final class IdMasker {
+    private static final int KEEP = 4;
+    private static final String MASK = "****";
+
+    private IdMasker() {
+    }
+
+    public static String mask(String id) {
+        if (id == null) return null;
+        if (id.length() <= KEEP * 2) return MASK;
+        return id.substring(0, KEEP) + MASK + id.substring(id.length() - KEEP);
+    }
+
+    /**
+     * 把文本中出现的id替换为脱敏后的形式
+     *
+     * @param text text
+     * @param ids  ids
+     * @return 脱敏后的文本
+     */
+    public static String maskIn(String text, String... ids) {
+        String masked = text;
+        for (String id : ids) {
+            if (id != null && !id.isEmpty()) {
+                masked = masked.replace(id, mask(id));
+            }
+        }
+        return masked;
+    }
+}
@@ -0,0 +1,28 @@
+package cn.com.vortexa.aro_network.monitor;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * 延迟统计查询接口
+ *
+ * @author helei
+ * @since 2025-10-08
+ */
+@RestController
+@RequestMapping("/aro/latency")
+public class LatencyController {
+
+    @GetMapping
+    public Map<LatencyTracker.Metric, LatencyStats> aggregate() {
+        return LatencyTracker.getInstance().aggregateStats();
+    }
+
+    @GetMapping("/proxies")
+    public Map<String, Map<LatencyTracker.Metric, LatencyStats>> proxies() {
+        return LatencyTracker.getInstance().proxyStats();
+    }
+}
@@ -0,0 +1,33 @@
+package cn.com.vortexa.aro_network.monitor;
+
+import lombok.Builder;
+import lombok.Data;
+import org.HdrHistogram.Histogram;
+
+/**
+ * 延迟统计快照（毫秒）
+ *
+ * @author helei
+ * @since 2025-10-08
+ */
+@Data
+@Builder
+public class LatencyStats {
+    private long count;
+    private long p50;
+    private long p90;
+    private long p99;
+    private long max;
+    private boolean slow;
+
+    public static LatencyStats of(Histogram histogram, boolean slow) {
+        return LatencyStats.builder()
+                .count(histogram.getTotalCount())
+                .p50(histogram.getValueAtPercentile(50))
+                .p90(histogram.getValueAtPercentile(90))
+                .p99(histogram.getValueAtPercentile(99))
+                .max(histogram.getMaxValue())
+                .slow(slow)
+                .build();
+    }
+}
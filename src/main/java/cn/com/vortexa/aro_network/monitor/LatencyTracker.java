@@ -0,0 +1,186 @@
+package cn.com.vortexa.aro_network.monitor;
+
+import cn.com.vortexa.aro_network.exec.ExecutionLanes;
+import cn.com.vortexa.aro_network.proxy.ProxyKeys;
+import cn.com.vortexa.common.interfaces.SystemProxy;
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 按代理统计的延迟直方图，定期评估鉴权往返延迟的p99，超过阈值的代理标记为慢代理
+ * 代理按 ProxyKeys.key 区分，展示时使用 host:port
+ *
+ * @author helei
+ * @since 2025-10-08
+ */
+@Slf4j
+public class LatencyTracker {
+    public static final long DEFAULT_SLOW_P99_MILLIS = 5_000;
+    public static final long DEFAULT_EVALUATE_INTERVAL_SECONDS = 60;
+    public static final int DEFAULT_MIN_SAMPLES = 5;
+    private static final long HIGHEST_TRACKABLE_MILLIS = TimeUnit.MINUTES.toMillis(10);
+    private static final int PROXY_SIGNIFICANT_DIGITS = 1;  // 单个代理精度10%，控制内存
+    private static final int AGGREGATE_SIGNIFICANT_DIGITS = 2;
+
+    private static final LatencyTracker INSTANCE = new LatencyTracker(
+            DEFAULT_SLOW_P99_MILLIS, DEFAULT_MIN_SAMPLES, DEFAULT_EVALUATE_INTERVAL_SECONDS
+    );
+
+    public enum Metric {
+        /**
+         * 发出连接帧到收到auth事件，客户端每次连接都能观测到的往返
+         */
+        AUTH_ACK,
+        /**
+         * 服务端ping事件的间隔
+         */
+        SERVER_PING_INTERVAL,
+        /**
+         * Engine.IO ping帧的间隔
+         */
+        ENGINE_PING_INTERVAL
+    }
+
+    /**
+     * 慢代理状态变化监听，样本不足而清除标记时 p99Millis 为 -1
+     */
+    public interface SlowProxyListener {
+        void onSlowStateChange(SystemProxy proxy, boolean slow, long p99Millis);
+    }
+
+    private final long slowP99Millis;
+    private final int minSamples;
+    private final Map<Object, ProxyLatency> proxies = new ConcurrentHashMap<>();
+    private final Map<Metric, Recorder> aggregateRecorders = new EnumMap<>(Metric.class);
+    private final Map<Metric, Histogram> aggregateTotals = new EnumMap<>(Metric.class);
+    private final List<SlowProxyListener> listeners = new CopyOnWriteArrayList<>();
+
+    public LatencyTracker(long slowP99Millis, int minSamples, long evaluateIntervalSeconds) {
+        this.slowP99Millis = slowP99Millis;
+        this.minSamples = minSamples;
+        for (Metric metric : Metric.values()) {
+            aggregateRecorders.put(metric, new Recorder(HIGHEST_TRACKABLE_MILLIS, AGGREGATE_SIGNIFICANT_DIGITS));
+            aggregateTotals.put(metric, new Histogram(HIGHEST_TRACKABLE_MILLIS, AGGREGATE_SIGNIFICANT_DIGITS));
+        }
+        ExecutionLanes.BACKGROUND.scheduleWithFixedDelay(
+                this::evaluate, evaluateIntervalSeconds, evaluateIntervalSeconds, TimeUnit.SECONDS
+        );
+    }
+
+    public static LatencyTracker getInstance() {
+        return INSTANCE;
+    }
+
+    public void addListener(SlowProxyListener listener) {
+        listeners.add(listener);
+    }
+
+    public void record(SystemProxy proxy, Metric metric, long millis) {
+        long value = Math.min(Math.max(millis, 0), HIGHEST_TRACKABLE_MILLIS);
+        proxies.computeIfAbsent(ProxyKeys.key(proxy), key -> new ProxyLatency(proxy))
+                .recorders.get(metric).recordValue(value);
+        aggregateRecorders.get(metric).recordValue(value);
+    }
+
+    public boolean isSlow(SystemProxy proxy) {
+        ProxyLatency latency = proxies.get(ProxyKeys.key(proxy));
+        return latency != null && latency.slow;
+    }
+
+    /**
+     * 所有代理的统计
+     *
+     * @return proxy -> metric -> stats
+     */
+    public Map<String, Map<Metric, LatencyStats>> proxyStats() {
+        Map<String, Map<Metric, LatencyStats>> result = new HashMap<>();
+        proxies.values().forEach(latency -> result.put(latency.label, latency.stats()));
+        return result;
+    }
+
+    public synchronized Map<Metric, LatencyStats> aggregateStats() {
+        Map<Metric, LatencyStats> result = new EnumMap<>(Metric.class);
+        aggregateTotals.forEach((metric, histogram) -> result.put(metric, LatencyStats.of(histogram, false)));
+        return result;
+    }
+
+    /**
+     * 合并区间数据，并按本区间鉴权往返延迟的p99判定慢代理
+     * 本区间样本不足时无法判定，清除慢代理标记：慢代理会被标记为BAD而很少再有连接，
+     * 否则样本一直不足就永远无法恢复，之后是否可用交给 ProxyHealthRegistry 的试探决定
+     */
+    synchronized void evaluate() {
+        try {
+            aggregateRecorders.forEach((metric, recorder) -> aggregateTotals.get(metric).add(recorder.getIntervalHistogram()));
+            for (ProxyLatency latency : proxies.values()) {
+                Histogram window = latency.rollWindow();
+                boolean enoughSamples = window.getTotalCount() >= minSamples;
+                long p99 = enoughSamples ? window.getValueAtPercentile(99) : -1;
+                boolean slow = enoughSamples && p99 > slowP99Millis;
+                if (slow != latency.slow) {
+                    latency.slow = slow;
+                    if (enoughSamples) {
+                        log.warn("proxy[{}] auth ack p99[{}ms] {}", latency.label, p99, slow ? "over threshold" : "recovered");
+                    } else {
+                        log.warn("proxy[{}] auth ack samples[{}] below[{}], clear slow", latency.label,
+                                window.getTotalCount(), minSamples);
+                    }
+                    for (SlowProxyListener listener : listeners) {
+                        listener.onSlowStateChange(latency.proxy, slow, p99);
+                    }
+                }
+            }
+        } catch (Exception e) {
+            log.error("evaluate latency error", e);
+        }
+    }
+
+    private static final class ProxyLatency {
+        private final SystemProxy proxy;
+        private final String label;
+        private final Map<Metric, Recorder> recorders = new EnumMap<>(Metric.class);
+        private final Map<Metric, Histogram> totals = new EnumMap<>(Metric.class);
+        private volatile boolean slow = false;
+
+        private ProxyLatency(SystemProxy proxy) {
+            this.proxy = proxy;
+            this.label = ProxyKeys.label(proxy);
+            for (Metric metric : Metric.values()) {
+                recorders.put(metric, new Recorder(HIGHEST_TRACKABLE_MILLIS, PROXY_SIGNIFICANT_DIGITS));
+                totals.put(metric, new Histogram(HIGHEST_TRACKABLE_MILLIS, PROXY_SIGNIFICANT_DIGITS));
+            }
+        }
+
+        /**
+         * 取出本区间数据并合并到累计值
+         *
+         * @return 本区间鉴权往返延迟
+         */
+        private synchronized Histogram rollWindow() {
+            Histogram ackWindow = null;
+            for (Metric metric : Metric.values()) {
+                Histogram interval = recorders.get(metric).getIntervalHistogram();
+                totals.get(metric).add(interval);
+                if (metric == Metric.AUTH_ACK) {
+                    ackWindow = interval;
+                }
+            }
+            return ackWindow;
+        }
+
+        private synchronized Map<Metric, LatencyStats> stats() {
+            Map<Metric, LatencyStats> result = new EnumMap<>(Metric.class);
+            totals.forEach((metric, histogram) -> result.put(metric, LatencyStats.of(histogram, slow)));
+            return result;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package cn.com.vortexa.aro_network.monitor;
+
+import cn.com.vortexa.aro_network.cache.RewardCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.stereotype.Component;
+
+/**
+ * 积分缓存指标
+ *
+ * @author helei
+ * @since 2025-10-10
+ */
+@Component
+public class RewardCacheMetrics implements MeterBinder {
+
+    @Override
+    public void bindTo(@NotNull MeterRegistry registry) {
+        RewardCache cache = RewardCache.getInstance();
+        FunctionCounter.builder("aro.reward.cache.requests", cache, RewardCache::getHits)
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("aro.reward.cache.requests", cache, RewardCache::getStaleHits)
+                .tag("result", "stale")
+                .register(registry);
+        FunctionCounter.builder("aro.reward.cache.requests", cache, RewardCache::getMisses)
+                .tag("result", "miss")
+                .register(registry);
+        FunctionCounter.builder("aro.reward.cache.refresh.failures", cache, RewardCache::getRefreshFailures)
+                .register(registry);
+        Gauge.builder("aro.reward.cache.size", cache, RewardCache::size)
+                .register(registry);
+    }
+}
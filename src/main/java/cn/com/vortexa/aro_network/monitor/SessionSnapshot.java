@@ -0,0 +1,30 @@
+package cn.com.vortexa.aro_network.monitor;
+
+import cn.com.vortexa.aro_network.websocket.SessionState;
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * 节点会话快照
+ *
+ * @author helei
+ * @since 2025-10-07
+ */
+@Data
+@Builder
+public class SessionSnapshot {
+    private String nodeId;
+    private String userId;
+    private String proxy;
+    private SessionState state;
+    private long openTime;
+    private long lastAuthLatencyMillis;
+    private int pingCount;
+    private int reconnectCount;
+    private long bytesIn;
+    private long bytesOut;
+    private long sendQueueBytes;
+    private int skippedSends;
+    private int sendRejects;
+    private String lastCloseReason;
+}
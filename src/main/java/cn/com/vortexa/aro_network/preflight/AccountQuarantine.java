@@ -0,0 +1,61 @@
+package cn.com.vortexa.aro_network.preflight;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 预检失败的账户在隔离期内不再启动节点，避免把连接名额和重试浪费在无效账户上
+ *
+ * @author helei
+ * @since 2025-10-18
+ */
+public class AccountQuarantine {
+    public static final long DEFAULT_QUARANTINE_MINUTES = 30;
+
+    private static final AccountQuarantine INSTANCE = new AccountQuarantine(DEFAULT_QUARANTINE_MINUTES, TimeUnit.MINUTES);
+
+    private final long durationMillis;
+    private final Map<String, QuarantineEntry> entries = new ConcurrentHashMap<>();
+
+    public AccountQuarantine(long duration, TimeUnit timeUnit) {
+        this.durationMillis = timeUnit.toMillis(duration);
+    }
+
+    public static AccountQuarantine getInstance() {
+        return INSTANCE;
+    }
+
+    public void quarantine(String userId, String reason) {
+        long now = System.currentTimeMillis();
+        entries.put(userId, new QuarantineEntry(userId, reason, now, now + durationMillis));
+    }
+
+    /**
+     * 隔离中的记录，已过期的顺便移除
+     *
+     * @param userId userId
+     * @return 未隔离时为null
+     */
+    public QuarantineEntry get(String userId) {
+        QuarantineEntry entry = entries.get(userId);
+        if (entry == null) return null;
+        if (entry.getUntil() <= System.currentTimeMillis()) {
+            entries.remove(userId, entry);
+            return null;
+        }
+        return entry;
+    }
+
+    public boolean release(String userId) {
+        return entries.remove(userId) != null;
+    }
+
+    public List<QuarantineEntry> snapshot() {
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(entry -> entry.getUntil() <= now);
+        return new ArrayList<>(entries.values());
+    }
+}
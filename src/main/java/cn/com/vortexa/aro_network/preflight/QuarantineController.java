@@ -0,0 +1,43 @@
+package cn.com.vortexa.aro_network.preflight;
+
+import cn.com.vortexa.aro_network.monitor.IdMasker;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+/**
+ * 账户隔离查询和解除接口
+ * 返回内容中的 userId 和原因里出现的 userId 均已脱敏，解除隔离需要调用方自己知道完整 userId
+ *
+ * @author helei
+ * @since 2025-10-18
+ */
+@RestController
+@RequestMapping("/aro/quarantine")
+public class QuarantineController {
+
+    @GetMapping
+    public List<QuarantineEntry> list() {
+        return AccountQuarantine.getInstance().snapshot().stream()
+                .map(entry -> new QuarantineEntry(
+                        IdMasker.mask(entry.getUserId()),
+                        entry.getReason() == null ? null : IdMasker.maskIn(entry.getReason(), entry.getUserId()),
+                        entry.getSince(),
+                        entry.getUntil()
+                ))
+                .toList();
+    }
+
+    @DeleteMapping("/{userId}")
+    public void release(@PathVariable String userId) {
+        if (!AccountQuarantine.getInstance().release(userId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "user[%s] not quarantined".formatted(IdMasker.mask(userId)));
+        }
+    }
+}
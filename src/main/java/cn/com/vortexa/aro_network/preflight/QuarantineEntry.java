@@ -0,0 +1,22 @@
+package cn.com.vortexa.aro_network.preflight;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * 被隔离的账户
+ *
+ * @author helei
+ * @since 2025-10-18
+ */
+@Data
+@AllArgsConstructor
+public class QuarantineEntry {
+    private String userId;
+
+    private String reason;
+
+    private long since;
+
+    private long until;
+}
@@ -0,0 +1,161 @@
+package cn.com.vortexa.aro_network.proxy;
+
+import cn.com.vortexa.common.interfaces.SystemProxy;
+import lombok.Getter;
+
+/**
+ * 单个代理的健康度，各项指标使用指数衰减平均
+ *
+ * @author helei
+ * @since 2025-10-15
+ */
+public class ProxyHealth {
+    public enum State {
+        HEALTHY,
+        /**
+         * 不可用，冷却中
+         */
+        BAD,
+        /**
+         * 冷却结束，正在试探，同一时间只放行一个试探
+         */
+        PROBING
+    }
+
+    private static final double ALPHA = 0.2;
+    private static final long FAILURE_PENALTY_MILLIS = 30_000;
+    /**
+     * 试探没有结果（握手、请求都没有回调）超过该时间后允许下一个试探
+     */
+    static final long PROBE_TIMEOUT_MILLIS = 60_000;
+    /**
+     * 试探进行中时，其他使用方等待后再检查
+     */
+    static final long PROBE_RECHECK_MILLIS = 5_000;
+
+    @Getter
+    private final String label;
+    @Getter
+    private final SystemProxy proxy;
+    @Getter
+    private volatile State state = State.HEALTHY;
+    private double handshakeMillis = 0;
+    private double authLatencyMillis = 0;
+    private double failureRate = 0;
+    private long samples = 0;
+    private int consecutiveFailures = 0;
+    private long cooldownMillis;
+    private long badUntil = 0;
+    private boolean probeInFlight = false;
+    private long probeStartedAt = 0;
+
+    ProxyHealth(String label, SystemProxy proxy, long cooldownMillis) {
+        this.label = label;
+        this.proxy = proxy;
+        this.cooldownMillis = cooldownMillis;
+    }
+
+    synchronized void recordSuccess(long handshakeMillis, long baseCooldownMillis) {
+        if (handshakeMillis >= 0) {
+            this.handshakeMillis = ewma(this.handshakeMillis, handshakeMillis);
+        }
+        failureRate = ewma(failureRate, 0);
+        samples++;
+        consecutiveFailures = 0;
+        probeInFlight = false;
+        if (state != State.HEALTHY) {
+            state = State.HEALTHY;
+            cooldownMillis = baseCooldownMillis;
+        }
+    }
+
+    /**
+     * @return 是否因本次失败变为BAD
+     */
+    synchronized boolean recordFailure(int failureThreshold, long maxCooldownMillis) {
+        failureRate = ewma(failureRate, 1);
+        samples++;
+        consecutiveFailures++;
+        probeInFlight = false;
+        if (state == State.PROBING) {
+            // 试探失败，冷却时间翻倍
+            cooldownMillis = Math.min(cooldownMillis * 2, maxCooldownMillis);
+            markBad();
+            return true;
+        }
+        if (state == State.HEALTHY && consecutiveFailures >= failureThreshold) {
+            markBad();
+            return true;
+        }
+        return false;
+    }
+
+    synchronized void recordAuthLatency(long millis) {
+        authLatencyMillis = ewma(authLatencyMillis, millis);
+    }
+
+    synchronized void markBad() {
+        state = State.BAD;
+        badUntil = System.currentTimeMillis() + cooldownMillis;
+        probeInFlight = false;
+    }
+
+    /**
+     * 是否可以使用
+     * 冷却结束后转为PROBING，只放行一个试探，试探的成功/失败结果回来后清除标记；
+     * 试探超时没有结果时放行下一个
+     */
+    synchronized boolean tryUse() {
+        long now = System.currentTimeMillis();
+        if (state == State.BAD && now >= badUntil) {
+            state = State.PROBING;
+        }
+        if (state == State.PROBING) {
+            if (probeInFlight && now - probeStartedAt < PROBE_TIMEOUT_MILLIS) {
+                return false;
+            }
+            probeInFlight = true;
+            probeStartedAt = now;
+            return true;
+        }
+        return state == State.HEALTHY;
+    }
+
+    /**
+     * 距离可以再次尝试的时间
+     */
+    synchronized long cooldownRemainingMillis() {
+        long now = System.currentTimeMillis();
+        if (state == State.BAD) {
+            return Math.max(0, badUntil - now);
+        }
+        if (state == State.PROBING && probeInFlight) {
+            return Math.min(PROBE_RECHECK_MILLIS, Math.max(0, probeStartedAt + PROBE_TIMEOUT_MILLIS - now));
+        }
+        return 0;
+    }
+
+    /**
+     * 分数越低越好
+     */
+    synchronized double score() {
+        return handshakeMillis + authLatencyMillis + failureRate * FAILURE_PENALTY_MILLIS;
+    }
+
+    synchronized ProxyHealthSnapshot snapshot() {
+        return ProxyHealthSnapshot.builder()
+                .proxy(label)
+                .state(state)
+                .handshakeMillis((long) handshakeMillis)
+                .authLatencyMillis((long) authLatencyMillis)
+                .failureRate(failureRate)
+                .samples(samples)
+                .consecutiveFailures(consecutiveFailures)
+                .cooldownRemainingMillis(cooldownRemainingMillis())
+                .build();
+    }
+
+    private double ewma(double current, double sample) {
+        return samples == 0 ? sample : current + ALPHA * (sample - current);
+    }
+}
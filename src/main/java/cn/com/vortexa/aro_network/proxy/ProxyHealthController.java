@@ -0,0 +1,23 @@
+package cn.com.vortexa.aro_network.proxy;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * 代理健康度查询接口
+ *
+ * @author helei
+ * @since 2025-10-15
+ */
+@RestController
+@RequestMapping("/aro/proxies")
+public class ProxyHealthController {
+
+    @GetMapping
+    public List<ProxyHealthSnapshot> list() {
+        return ProxyHealthRegistry.getInstance().snapshot();
+    }
+}
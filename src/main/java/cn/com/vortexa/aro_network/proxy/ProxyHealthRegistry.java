@@ -0,0 +1,180 @@
+package cn.com.vortexa.aro_network.proxy;
+
+import cn.com.vortexa.aro_network.monitor.LatencyTracker;
+import cn.com.vortexa.common.interfaces.SystemProxy;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 代理健康度注册表
+ * 1.按握手耗时、失败率、鉴权往返延迟给代理打分
+ * 2.连续失败达到阈值或鉴权往返延迟p99超标时标记为BAD，冷却后放行试探，试探失败冷却时间翻倍
+ * 代理按 ProxyKeys.key（equals/hashCode）区分
+ * 3.为允许迁移的节点挑选健康代理，只在节点所属账户的代理池内挑选，按节点id做 rendezvous 哈希分散负载
+ *
+ * @author helei
+ * @since 2025-10-15
+ */
+@Slf4j
+public class ProxyHealthRegistry {
+    public static final int DEFAULT_FAILURE_THRESHOLD = 3;
+    public static final long DEFAULT_COOLDOWN_MINUTES = 5;
+    public static final long DEFAULT_MAX_COOLDOWN_MINUTES = 60;
+
+    private static final ProxyHealthRegistry INSTANCE = new ProxyHealthRegistry(
+            DEFAULT_FAILURE_THRESHOLD,
+            TimeUnit.MINUTES.toMillis(DEFAULT_COOLDOWN_MINUTES),
+            TimeUnit.MINUTES.toMillis(DEFAULT_MAX_COOLDOWN_MINUTES)
+    );
+
+    private final int failureThreshold;
+    private final long cooldownMillis;
+    private final long maxCooldownMillis;
+    private final Map<Object, ProxyHealth> proxies = new ConcurrentHashMap<>();
+    private final Map<String, Set<SystemProxy>> pools = new ConcurrentHashMap<>();
+
+    public ProxyHealthRegistry(int failureThreshold, long cooldownMillis, long maxCooldownMillis) {
+        this.failureThreshold = failureThreshold;
+        this.cooldownMillis = cooldownMillis;
+        this.maxCooldownMillis = maxCooldownMillis;
+        LatencyTracker.getInstance().addListener((proxy, slow, p99Millis) -> {
+            ProxyHealth health = proxies.get(ProxyKeys.key(proxy));
+            if (slow && health != null) {
+                log.warn("proxy[{}] marked bad, auth ack p99[{}ms]", health.getLabel(), p99Millis);
+                health.markBad();
+            }
+        });
+    }
+
+    public static ProxyHealthRegistry getInstance() {
+        return INSTANCE;
+    }
+
+    public void recordHandshake(SystemProxy proxy, long millis) {
+        health(proxy).recordSuccess(millis, cooldownMillis);
+    }
+
+    public void recordSuccess(SystemProxy proxy) {
+        health(proxy).recordSuccess(-1, cooldownMillis);
+    }
+
+    public void recordFailure(SystemProxy proxy) {
+        ProxyHealth health = health(proxy);
+        if (health.recordFailure(failureThreshold, maxCooldownMillis)) {
+            log.warn("proxy[{}] marked bad, cooldown[{}ms]", health.getLabel(), health.cooldownRemainingMillis());
+        }
+    }
+
+    public void recordAuthLatency(SystemProxy proxy, long millis) {
+        health(proxy).recordAuthLatency(millis);
+    }
+
+    /**
+     * 代理是否可用，冷却结束的代理会被放行试探
+     *
+     * @param proxy proxy
+     * @return boolean
+     */
+    public boolean isUsable(SystemProxy proxy) {
+        ProxyHealth health = proxies.get(ProxyKeys.key(proxy));
+        return health == null || health.tryUse();
+    }
+
+    /**
+     * 代理当前是否健康，BAD、PROBING 都算不健康；只读取状态，不会像 isUsable 那样放行试探
+     *
+     * @param proxy proxy
+     * @return boolean
+     */
+    public boolean isHealthy(SystemProxy proxy) {
+        ProxyHealth health = proxies.get(ProxyKeys.key(proxy));
+        return health == null || health.getState() == ProxyHealth.State.HEALTHY;
+    }
+
+    public long cooldownRemainingMillis(SystemProxy proxy) {
+        ProxyHealth health = proxies.get(ProxyKeys.key(proxy));
+        return health == null ? 0 : health.cooldownRemainingMillis();
+    }
+
+    /**
+     * 把账户的代理加入代理池，池内的代理才能作为迁移目标
+     *
+     * @param pool  池名
+     * @param proxy 账户代理，为空时忽略
+     */
+    public void joinPool(String pool, SystemProxy proxy) {
+        if (pool == null || proxy == null) return;
+        pools.computeIfAbsent(pool, k -> ConcurrentHashMap.newKeySet()).add(proxy);
+    }
+
+    /**
+     * 在代理池内挑选健康代理
+     * 对每个候选代理计算 hash(routingKey, 代理)，取最大者（rendezvous 哈希），
+     * 同一个坏代理上的节点会分散到池内不同的代理，而不是都挤到分数最好的一个上
+     *
+     * @param pool       池名
+     * @param exclude    排除的代理
+     * @param routingKey 一般为节点id
+     * @return 没有可用代理时返回null
+     */
+    public SystemProxy selectHealthy(String pool, SystemProxy exclude, String routingKey) {
+        Set<SystemProxy> members = pool == null ? null : pools.get(pool);
+        if (members == null) return null;
+        Object excludeKey = ProxyKeys.key(exclude);
+        int routingHash = routingKey == null ? 0 : routingKey.hashCode();
+        SystemProxy best = null;
+        long bestWeight = Long.MIN_VALUE;
+        for (SystemProxy candidate : members) {
+            if (ProxyKeys.key(candidate).equals(excludeKey)) continue;
+            ProxyHealth health = proxies.get(ProxyKeys.key(candidate));
+            if (health != null && health.getState() != ProxyHealth.State.HEALTHY) continue;
+            long weight = mix(routingHash, ProxyKeys.key(candidate).hashCode());
+            if (weight > bestWeight) {
+                bestWeight = weight;
+                best = candidate;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * 解析实际使用的代理，当前代理不可用且允许迁移时换成池内的健康代理
+     *
+     * @param proxy      当前代理
+     * @param pool       代理池，不允许迁移时为空
+     * @param routingKey 池内挑选代理的哈希key
+     * @return 实际使用的代理
+     */
+    public SystemProxy resolve(SystemProxy proxy, String pool, String routingKey) {
+        if (pool == null || isUsable(proxy)) {
+            return proxy;
+        }
+        SystemProxy alternative = selectHealthy(pool, proxy, routingKey);
+        return alternative == null ? proxy : alternative;
+    }
+
+    private static long mix(int routingHash, int proxyHash) {
+        long h = ((long) routingHash << 32) ^ (proxyHash & 0xFFFFFFFFL);
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    public List<ProxyHealthSnapshot> snapshot() {
+        return proxies.values().stream().map(ProxyHealth::snapshot).toList();
+    }
+
+    private ProxyHealth health(SystemProxy proxy) {
+        return proxies.computeIfAbsent(
+                ProxyKeys.key(proxy), key -> new ProxyHealth(ProxyKeys.label(proxy), proxy, cooldownMillis)
+        );
+    }
+}
@@ -0,0 +1,23 @@
+package cn.com.vortexa.aro_network.proxy;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * 代理健康度快照
+ *
+ * @author helei
+ * @since 2025-10-15
+ */
+@Data
+@Builder
+public class ProxyHealthSnapshot {
+    private String proxy;
+    private ProxyHealth.State state;
+    private long handshakeMillis;
+    private long authLatencyMillis;
+    private double failureRate;
+    private long samples;
+    private int consecutiveFailures;
+    private long cooldownRemainingMillis;
+}
@@ -0,0 +1,78 @@
+package cn.com.vortexa.aro_network.proxy;
+
+import cn.com.vortexa.common.interfaces.SystemProxy;
+import cn.com.vortexa.common.util.http.RestApiClientFactory;
+import lombok.extern.slf4j.Slf4j;
+
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.net.SocketAddress;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 代理的统一标识
+ * 1.key：按 SystemProxy 的 equals/hashCode 区分代理，所有按代理分组的缓存、限流、统计都使用它
+ * 2.label：只用于展示（接口、指标标签、检查点），取 OkHttp 实际使用的代理地址 host:port，不包含账号密码
+ *
+ * @author helei
+ * @since 2025-10-18
+ */
+@Slf4j
+public final class ProxyKeys {
+    public static final String DIRECT = "direct";
+    private static final Object DIRECT_KEY = new Object();
+    private static final AtomicInteger UNRESOLVED = new AtomicInteger(0);
+    /**
+     * 弱引用，账户重新加载后旧的代理对象可以被回收
+     */
+    private static final Map<SystemProxy, String> LABELS = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private ProxyKeys() {
+    }
+
+    /**
+     * 分组用的key，无代理时为固定对象
+     *
+     * @param proxy proxy
+     * @return key
+     */
+    public static Object key(SystemProxy proxy) {
+        return proxy == null ? DIRECT_KEY : proxy;
+    }
+
+    /**
+     * 展示用的 host:port
+     *
+     * @param proxy proxy
+     * @return label
+     */
+    public static String label(SystemProxy proxy) {
+        if (proxy == null) return DIRECT;
+        String label = LABELS.get(proxy);
+        if (label == null) {
+            label = resolveLabel(proxy);
+            LABELS.put(proxy, label);
+        }
+        return label;
+    }
+
+    private static String resolveLabel(SystemProxy proxy) {
+        try {
+            Proxy javaProxy = RestApiClientFactory.getClient(proxy).getOkHttpClient().proxy();
+            if (javaProxy == null || javaProxy.type() == Proxy.Type.DIRECT) {
+                return DIRECT;
+            }
+            SocketAddress address = javaProxy.address();
+            if (address instanceof InetSocketAddress inet) {
+                return inet.getHostString() + ":" + inet.getPort();
+            }
+        } catch (Exception e) {
+            log.warn("resolve proxy address error, {}", e.getMessage());
+        }
+        // 拿不到地址时给一个进程内稳定的编号，不能回退到 toString，可能带有账号密码
+        return "proxy-" + UNRESOLVED.incrementAndGet();
+    }
+}
@@ -5,11 +5,42 @@ import cn.com.vortexa.bot_template.bot.dto.FullAccountContext;
 import cn.com.vortexa.bot_template.exception.BotInvokeException;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 
 public interface AroNetworkApi {
 
     Map<String, Object> startEarnPoint(FullAccountContext fullAccountContext, int retry, int reconnectDelay, AppendLogger logger) throws BotInvokeException;
 
+    /**
+     * 启动账户下的节点后立即返回，不等待会话结束
+     *
+     * @param fullAccountContext fullAccountContext
+     * @param retry              retry
+     * @param reconnectDelay     reconnectDelay
+     * @param logger             logger
+     * @return EarnPointHandle
+     */
+    EarnPointHandle startEarnPointAsync(FullAccountContext fullAccountContext, int retry, int reconnectDelay, AppendLogger logger) throws BotInvokeException;
+
+    /**
+     * 用框架重新加载的账户对账：参数map未被替换的账户不重新编译，节点描述版本未变化直接跳过；
+     * 变化时启动新增节点，关闭移除的节点，其余不动
+     * 未启动过或已隔离的账户不处理；参数在原map上修改的账户需要重新启动才会生效
+     *
+     * @param fullAccountContext 重新加载的账户
+     * @return 是否有变化
+     */
+    boolean reconcile(FullAccountContext fullAccountContext) throws BotInvokeException;
+
     Double pointQuery(FullAccountContext fullAccountContext, AppendLogger logger) throws ExecutionException, InterruptedException;
+
+    /**
+     * 异步查询积分，按代理和全局限制并发，同一token的查询会合并
+     *
+     * @param fullAccountContext fullAccountContext
+     * @param logger             logger
+     * @return 积分
+     */
+    CompletableFuture<Double> pointQueryAsync(FullAccountContext fullAccountContext, AppendLogger logger);
 }
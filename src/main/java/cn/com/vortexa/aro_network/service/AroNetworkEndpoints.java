@@ -0,0 +1,47 @@
+package cn.com.vortexa.aro_network.service;
+
+import cn.hutool.core.util.StrUtil;
+import lombok.Getter;
+
+/**
+ * aro network 接口地址
+ * 可通过系统属性 aro.network.base-url / aro.network.ws-url
+ * 或环境变量 ARO_NETWORK_BASE_URL / ARO_NETWORK_WS_URL 覆盖，用于指向本地模拟服务
+ *
+ * @author helei
+ * @since 2025-10-11
+ */
+@Getter
+public final class AroNetworkEndpoints {
+    public static final String DEFAULT_BASE_URL = "https://testnet-api.aro.network/api";
+    public static final String DEFAULT_WS_URL = "wss://testnet-ws.aro.network/socket.io/?EIO=4&transport=websocket";
+
+    public static final String BASE_URL_PROPERTY = "aro.network.base-url";
+    public static final String WS_URL_PROPERTY = "aro.network.ws-url";
+
+    private final String baseUrl;
+    private final String wsUrl;
+
+    public AroNetworkEndpoints(String baseUrl, String wsUrl) {
+        if (StrUtil.isBlank(baseUrl) || StrUtil.isBlank(wsUrl)) {
+            throw new IllegalArgumentException("base url[%s] or ws url[%s] is empty".formatted(baseUrl, wsUrl));
+        }
+        this.baseUrl = StrUtil.removeSuffix(baseUrl, "/");
+        this.wsUrl = wsUrl;
+    }
+
+    public static AroNetworkEndpoints fromEnvironment() {
+        return new AroNetworkEndpoints(
+                resolve(BASE_URL_PROPERTY, DEFAULT_BASE_URL),
+                resolve(WS_URL_PROPERTY, DEFAULT_WS_URL)
+        );
+    }
+
+    private static String resolve(String property, String defaultValue) {
+        String value = System.getProperty(property);
+        if (StrUtil.isBlank(value)) {
+            value = System.getenv(property.toUpperCase().replace('.', '_').replace('-', '_'));
+        }
+        return StrUtil.isBlank(value) ? defaultValue : value;
+    }
+}
@@ -0,0 +1,27 @@
+package cn.com.vortexa.aro_network.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 已启动的一组节点，节点进度通过 SessionEventBus 推送
+ *
+ * @author helei
+ * @since 2025-10-17
+ */
+@Getter
+@AllArgsConstructor
+public class EarnPointHandle {
+    private final String userId;
+
+    private final List<String> nodeIds;
+
+    /**
+     * 所有节点会话结束后完成，nodeId -> ping次数或错误信息
+     */
+    private final CompletableFuture<Map<String, Object>> completion;
+}
@@ -1,134 +1,465 @@
 package cn.com.vortexa.aro_network.service.impl;
 
 
-import cn.com.vortexa.aro_network.AroNetworkBot;
+import cn.com.vortexa.aro_network.cache.NodeDescriptor;
+import cn.com.vortexa.aro_network.cache.NodeDescriptorCache;
+import cn.com.vortexa.aro_network.cache.RewardCache;
+import cn.com.vortexa.aro_network.checkpoint.SessionCheckpointStore;
+import cn.com.vortexa.aro_network.config.AroConfig;
+import cn.com.vortexa.aro_network.exec.ExecutionLanes;
+import cn.com.vortexa.aro_network.http.ApiResponseException;
+import cn.com.vortexa.aro_network.http.BoundedRequestExecutor;
+import cn.com.vortexa.aro_network.http.HeaderTemplateCache;
+import cn.com.vortexa.aro_network.lifecycle.SessionLifecycleManager;
+import cn.com.vortexa.aro_network.log.NodeEventLog;
+import cn.com.vortexa.aro_network.monitor.AROClientRegistry;
+import cn.com.vortexa.aro_network.preflight.AccountQuarantine;
+import cn.com.vortexa.aro_network.preflight.QuarantineEntry;
+import cn.com.vortexa.aro_network.proxy.ProxyHealthRegistry;
+import cn.com.vortexa.aro_network.proxy.ProxyKeys;
 import cn.com.vortexa.aro_network.service.AroNetworkApi;
+import cn.com.vortexa.aro_network.service.AroNetworkEndpoints;
+import cn.com.vortexa.aro_network.service.EarnPointHandle;
+import cn.com.vortexa.aro_network.shard.ShardCoordinator;
 import cn.com.vortexa.aro_network.websocket.AROClient;
+import cn.com.vortexa.aro_network.websocket.ReconnectPolicy;
 import cn.com.vortexa.base.constants.HeaderKey;
 import cn.com.vortexa.base.util.log.AppendLogger;
 import cn.com.vortexa.bot_template.bot.dto.FullAccountContext;
 import cn.com.vortexa.bot_template.exception.BotInvokeException;
 import cn.com.vortexa.common.constants.HttpMethod;
-import cn.com.vortexa.common.util.CastUtil;
+import cn.com.vortexa.common.interfaces.SystemProxy;
 import cn.com.vortexa.common.util.http.RestApiClientFactory;
-import cn.hutool.core.collection.CollUtil;
 import cn.hutool.core.util.StrUtil;
 import com.alibaba.fastjson.JSONObject;
+import lombok.extern.slf4j.Slf4j;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author helei
  * @since 2025-09-29
  */
+@Slf4j
 public class AroNetworkApiImpl implements AroNetworkApi {
-    private static final String BASE_URL = "https://testnet-api.aro.network/api";
-    private static final String WS_URL = "wss://testnet-ws.aro.network/socket.io/?EIO=4&transport=websocket";
     public static final String NODE_ID_PATTERN = "node_id_";
     public static final String USER_ID_KEY = "user_id";
+    public static final String PROXY_MIGRATE_KEY = "allow_proxy_migrate";
+    public static final String PROXY_POOL_KEY = "proxy_pool";
+    public static final String QUERY_GLOBAL_CONCURRENCY_KEY = "aro.query.global-concurrency";
+    public static final String QUERY_PROXY_CONCURRENCY_KEY = "aro.query.proxy-concurrency";
+    public static final String QUERY_TIMEOUT_SECONDS_KEY = "aro.query.timeout-seconds";
+    public static final String RECONCILE_INTERVAL_MINUTES_KEY = "aro.reconcile.interval-minutes";
+    private static final int DEFAULT_QUERY_GLOBAL_CONCURRENCY = 64;
+    private static final int DEFAULT_QUERY_PROXY_CONCURRENCY = 4;
+    private static final int DEFAULT_QUERY_TIMEOUT_SECONDS = 15;
+    public static final long DEFAULT_RECONCILE_INTERVAL_MINUTES = 5;
 
-    private final AroNetworkBot aroNetworkBot;
+    private final AroNetworkEndpoints endpoints;
+    private final BoundedRequestExecutor queryExecutor = new BoundedRequestExecutor(
+            AroConfig.getInt(QUERY_GLOBAL_CONCURRENCY_KEY, DEFAULT_QUERY_GLOBAL_CONCURRENCY),
+            AroConfig.getInt(QUERY_PROXY_CONCURRENCY_KEY, DEFAULT_QUERY_PROXY_CONCURRENCY),
+            AroConfig.getInt(QUERY_TIMEOUT_SECONDS_KEY, DEFAULT_QUERY_TIMEOUT_SECONDS), TimeUnit.SECONDS,
+            ExecutionLanes.QUERY
+    );
+    private final HeaderTemplateCache headerTemplateCache = new HeaderTemplateCache(
+            HeaderTemplateCache.DEFAULT_MAX_SIZE, HeaderTemplateCache.DEFAULT_MAX_AGE_MINUTES, TimeUnit.MINUTES
+    );
+    private final Map<String, ReconcileTarget> reconcileTargets = new ConcurrentHashMap<>();
+    private final Map<String, String> userTokens = new ConcurrentHashMap<>();
 
-    public AroNetworkApiImpl(AroNetworkBot aroNetworkBot) {
-        this.aroNetworkBot = aroNetworkBot;
+    public AroNetworkApiImpl() {
+        this(AroNetworkEndpoints.fromEnvironment());
+    }
+
+    public AroNetworkApiImpl(AroNetworkEndpoints endpoints) {
+        this.endpoints = endpoints;
     }
 
     @Override
     public Map<String, Object> startEarnPoint(
             FullAccountContext fullAccountContext, int retry, int reconnectDelay, AppendLogger logger
     ) throws BotInvokeException {
+        EarnPointHandle handle = startEarnPointAsync(fullAccountContext, retry, reconnectDelay, logger);
         try {
-            String userId = CastUtil.autoCast(fullAccountContext.getParam(USER_ID_KEY));
-            if (StrUtil.isBlank(userId)) {
-                throw new IllegalArgumentException("user id is empty");
+            return handle.getCompletion().get();
+        } catch (Exception e) {
+            throw new BotInvokeException("start earn point error", e);
+        }
+    }
+
+    @Override
+    public EarnPointHandle startEarnPointAsync(
+            FullAccountContext fullAccountContext, int retry, int reconnectDelay, AppendLogger logger
+    ) throws BotInvokeException {
+        NodeDescriptor descriptor;
+        try {
+            // 启动时重新编译，参数在框架中被原地修改也能生效
+            descriptor = NodeDescriptorCache.getInstance().refresh(fullAccountContext);
+        } catch (Exception e) {
+            throw new BotInvokeException("start earn point error", e);
+        }
+        return start(fullAccountContext, descriptor, retry, reconnectDelay, logger);
+    }
+
+    @Override
+    public boolean reconcile(FullAccountContext fullAccountContext) throws BotInvokeException {
+        Object rawUserId = fullAccountContext.getParam(USER_ID_KEY);
+        if (rawUserId == null) return false;
+        String userId = String.valueOf(rawUserId);
+        ReconcileTarget target = reconcileTargets.get(userId);
+        if (target == null) return false;
+        // 隔离中的账户不编译、不预检，等解除隔离后重新启动
+        if (AccountQuarantine.getInstance().get(userId) != null) return false;
+
+        NodeDescriptor descriptor;
+        try {
+            // 参数map仍是上次编译时的实例则直接返回缓存，不重新编译；只有框架重新加载过参数的账户才编译
+            descriptor = NodeDescriptorCache.getInstance().get(fullAccountContext);
+        } catch (Exception e) {
+            throw new BotInvokeException("reconcile error", e);
+        }
+        // 版本相同说明节点没有变化，不再预检和访问注册表
+        if (descriptor.getVersion() == target.getVersion()) return false;
+
+        AppendLogger logger = target.getLogger();
+        EarnPointHandle handle = start(
+                fullAccountContext, descriptor, target.getRetry(), target.getReconnectDelay(), logger
+        );
+        handle.getCompletion().whenComplete((result, e) -> {
+            if (e != null) {
+                logger.error("user[%s] reconcile error".formatted(userId), e.getCause() == null ? e : e.getCause());
             }
-            List<String> nodeIdList = fullAccountContext.getParams().entrySet().stream()
-                    .filter(e -> e.getKey().startsWith(NODE_ID_PATTERN))
-                    .filter(e -> e.getValue() != null)
-                    .map(e -> (String) e.getValue())
-                    .toList();
-            if (CollUtil.isEmpty(nodeIdList)) {
-                throw new IllegalArgumentException("node id is empty");
+        });
+        return true;
+    }
+
+    /**
+     * 按编译好的节点描述启动账户，与上次的期望节点对账：移除的节点关闭，已在运行的节点由预检跳过，只启动新增节点
+     */
+    private EarnPointHandle start(
+            FullAccountContext fullAccountContext,
+            NodeDescriptor descriptor,
+            int retry,
+            int reconnectDelay,
+            AppendLogger logger
+    ) throws BotInvokeException {
+        try {
+            if (!SessionLifecycleManager.isAccepting()) {
+                throw new IllegalStateException("application is shutting down");
             }
+            String userId = descriptor.getUserId();
+            QuarantineEntry quarantined = AccountQuarantine.getInstance().get(userId);
+            if (quarantined != null) {
+                throw new IllegalStateException("account quarantined, " + quarantined.getReason());
+            }
+            String token = fullAccountContext.getTokenInfo().getToken();
+            trackToken(userId, token);
+            // 账户重新启动时 user-agent 等可能已修改，请求头模板重新构建
+            headerTemplateCache.invalidate(token);
+            List<String> removed = reconcileTargets
+                    .computeIfAbsent(userId, ReconcileTarget::new)
+                    .update(retry, reconnectDelay, logger, descriptor);
+            stopRemovedNodes(userId, removed, logger);
 
-            ExecutorService threadPool = aroNetworkBot.getVortexaBotContext().getThreadPool();
-            List<CompletableFuture<Integer>> futures = nodeIdList.stream()
-                    .map(nodeId -> createEarnPointFuture(
-                            fullAccountContext, nodeId, userId, retry, reconnectDelay, threadPool, logger
-                    ))
-                    .toList();
-
-            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get();
-            Map<String, Object> result = new HashMap<>();
-            for (int i = 0; i < futures.size(); i++) {
-                String nodeId = nodeIdList.get(i);
-                try {
-                    Integer pingCount = futures.get(i).get();
-                    result.put(nodeId, pingCount);
-                } catch (Exception e) {
-                    logger.error("node[%s] earn error".formatted(nodeId), e.getCause() == null ? e : e.getCause());
-                    result.put(nodeId, e.getMessage());
-                }
+            // 上次运行健康的节点优先启动
+            List<String> nodeIdList = SessionCheckpointStore.getInstance().prioritize(descriptor.getNodeIds());
+
+            ReconnectPolicy reconnectPolicy = ReconnectPolicy.ofMinutes(reconnectDelay);
+            String proxyPool = descriptor.getProxyPool();
+            if (proxyPool != null) {
+                ProxyHealthRegistry.getInstance().joinPool(proxyPool, fullAccountContext.getProxy());
             }
-            return result;
+            CompletableFuture<List<String>> viableNodes = preflight(fullAccountContext, userId, nodeIdList, logger);
+
+            ShardCoordinator shardCoordinator = ShardCoordinator.current();
+            CompletableFuture<Map<String, Object>> completion = shardCoordinator != null
+                    ? viableNodes.thenApply(nodeIds -> registerShardedNodes(
+                    shardCoordinator, fullAccountContext, nodeIds, userId, retry, reconnectPolicy,
+                    proxyPool, logger
+            ))
+                    : viableNodes.thenCompose(nodeIds -> startNodes(
+                    fullAccountContext, nodeIds, userId, retry, reconnectPolicy, proxyPool, logger
+            ));
+            return new EarnPointHandle(userId, nodeIdList, completion);
         } catch (Exception e) {
             throw new BotInvokeException("start earn point error", e);
         }
     }
 
+    /**
+     * 关闭不再需要的节点，正常结束会话
+     */
+    private void stopRemovedNodes(String userId, List<String> removed, AppendLogger logger) {
+        if (removed.isEmpty()) return;
+        ShardCoordinator shardCoordinator = ShardCoordinator.current();
+        for (String nodeId : removed) {
+            if (shardCoordinator != null) {
+                shardCoordinator.unregister(nodeId);
+            } else {
+                AROClient aroClient = AROClientRegistry.getInstance().get(nodeId);
+                if (aroClient != null && userId.equals(aroClient.getUserId())) {
+                    aroClient.shutdown();
+                }
+            }
+        }
+        logger.info("user[%s] %s node removed, %s".formatted(userId, removed.size(), removed));
+    }
+
+    /**
+     * 启动前预检，只把可用的节点交给连接层
+     * 1.token为空直接隔离账户
+     * 2.已在运行的节点跳过，避免重复连接
+     * 3.单独发起一次鉴权请求校验token（有界并发，不读写积分缓存，不更新账户积分），接口明确拒绝时隔离账户；
+     * 网络或代理异常不隔离，交给连接层的重试和代理健康度处理
+     * 节点归属不在这里校验：接口没有可用的节点列表，不属于账户的节点在websocket鉴权失败后按重试上限结束
+     *
+     * @return 可以启动的节点
+     */
+    private CompletableFuture<List<String>> preflight(
+            FullAccountContext fullAccountContext, String userId, List<String> nodeIdList, AppendLogger logger
+    ) {
+        AccountQuarantine quarantine = AccountQuarantine.getInstance();
+        if (StrUtil.isBlank(fullAccountContext.getTokenInfo().getToken())) {
+            quarantine.quarantine(userId, "token is empty");
+            return CompletableFuture.failedFuture(new IllegalStateException("token is empty"));
+        }
+
+        List<String> viable = new ArrayList<>(nodeIdList.size());
+        AROClientRegistry clientRegistry = AROClientRegistry.getInstance();
+        for (String nodeId : nodeIdList) {
+            AROClient running = clientRegistry.get(nodeId);
+            if (running != null && !running.isTerminated()) {
+                logger.warn("node[%s] already running under user[%s], skip".formatted(nodeId, running.getUserId()));
+            } else {
+                viable.add(nodeId);
+            }
+        }
+        if (viable.isEmpty()) {
+            return CompletableFuture.completedFuture(viable);
+        }
+
+        return validateToken(fullAccountContext, userId).handle((v, e) -> {
+            Throwable cause = e;
+            while (cause instanceof CompletionException || cause instanceof ExecutionException) {
+                cause = cause.getCause();
+            }
+            if (cause instanceof ApiResponseException) {
+                quarantine.quarantine(userId, cause.getMessage());
+                logger.warn("user[%s] preflight failed, quarantined, %s".formatted(userId, cause.getMessage()));
+                throw new CompletionException(cause);
+            }
+            if (cause != null) {
+                logger.warn("user[%s] preflight request error, start anyway, %s".formatted(userId, cause.getMessage()));
+            }
+            return viable;
+        });
+    }
+
+    /**
+     * 校验token，不合并、不缓存，除代理健康度和失效token的清理外没有其他副作用
+     */
+    private CompletableFuture<Void> validateToken(FullAccountContext fullAccountContext, String userId) {
+        String token = fullAccountContext.getTokenInfo().getToken();
+        SystemProxy proxy = ProxyHealthRegistry.getInstance().resolve(
+                fullAccountContext.getProxy(),
+                NodeDescriptorCache.proxyPool(userId, fullAccountContext.getParams()),
+                token
+        );
+        return queryExecutor.<JSONObject>submit(
+                ProxyKeys.key(proxy),
+                null,
+                () -> request(
+                        fullAccountContext,
+                        proxy,
+                        "/edgeNode/node/rewards",
+                        HttpMethod.GET,
+                        null,
+                        null,
+                        true
+                )
+        ).thenAccept(data -> {});
+    }
+
+    private CompletableFuture<Map<String, Object>> startNodes(
+            FullAccountContext fullAccountContext,
+            List<String> nodeIdList,
+            String userId,
+            int retry,
+            ReconnectPolicy reconnectPolicy,
+            String proxyPool,
+            AppendLogger logger
+    ) {
+        List<CompletableFuture<Integer>> futures = nodeIdList.stream()
+                .map(nodeId -> createEarnPointFuture(
+                        fullAccountContext, nodeId, userId, retry, reconnectPolicy, proxyPool, logger
+                ))
+                .toList();
+
+        return CompletableFuture
+                .allOf(futures.toArray(new CompletableFuture[0]))
+                .handle((v, ignored) -> {
+                    Map<String, Object> result = new HashMap<>();
+                    for (int i = 0; i < futures.size(); i++) {
+                        String nodeId = nodeIdList.get(i);
+                        try {
+                            Integer pingCount = futures.get(i).join();
+                            result.put(nodeId, pingCount);
+                        } catch (Exception e) {
+                            logger.error("node[%s] earn error".formatted(nodeId), e.getCause() == null ? e : e.getCause());
+                            result.put(nodeId, e.getMessage());
+                        }
+                    }
+                    return result;
+                });
+    }
+
+    /**
+     * 多实例运行时，节点交给分片协调器，持有租约后才在本实例启动
+     */
+    private Map<String, Object> registerShardedNodes(
+            ShardCoordinator shardCoordinator,
+            FullAccountContext fullAccountContext,
+            List<String> nodeIdList,
+            String userId,
+            int retry,
+            ReconnectPolicy reconnectPolicy,
+            String proxyPool,
+            AppendLogger logger
+    ) {
+        Map<String, Object> result = new HashMap<>();
+        for (String nodeId : nodeIdList) {
+            shardCoordinator.register(
+                    nodeId,
+                    () -> createEarnPointFuture(
+                            fullAccountContext, nodeId, userId, retry, reconnectPolicy, proxyPool, logger
+                    ),
+                    () -> {
+                        AROClient aroClient = AROClientRegistry.getInstance().get(nodeId);
+                        if (aroClient != null) {
+                            aroClient.shutdown();
+                        }
+                    }
+            );
+            result.put(nodeId, "sharded");
+        }
+        logger.info("%s node registered to shard instance[%s]".formatted(
+                nodeIdList.size(), shardCoordinator.getInstanceId()
+        ));
+        return result;
+    }
+
     @Override
     public Double pointQuery(FullAccountContext fullAccountContext, AppendLogger logger) throws ExecutionException, InterruptedException {
+        return pointQueryAsync(fullAccountContext, logger).get();
+    }
+
+    @Override
+    public CompletableFuture<Double> pointQueryAsync(FullAccountContext fullAccountContext, AppendLogger logger) {
         logger.info("start query point...");
-        return request(
-                fullAccountContext,
-                "/edgeNode/node/rewards",
-                HttpMethod.GET,
-                null,
-                null,
-                true
-        ).thenApply(data -> {
-            Double total = data.getDouble("total");
+        String token = fullAccountContext.getTokenInfo().getToken();
+        Object userId = fullAccountContext.getParam(USER_ID_KEY);
+        if (userId != null) {
+            trackToken(String.valueOf(userId), token);
+        }
+        SystemProxy proxy = ProxyHealthRegistry.getInstance().resolve(
+                fullAccountContext.getProxy(),
+                userId == null ? null : NodeDescriptorCache.proxyPool(String.valueOf(userId), fullAccountContext.getParams()),
+                token
+        );
+        return RewardCache.getInstance().get(token, () -> queryExecutor.submit(
+                ProxyKeys.key(proxy),
+                token,
+                () -> request(
+                        fullAccountContext,
+                        proxy,
+                        "/edgeNode/node/rewards",
+                        HttpMethod.GET,
+                        null,
+                        null,
+                        true
+                )
+        ).thenApply(data -> data.getDouble("total"))).thenApply(total -> {
             fullAccountContext.getRewordInfo().setPoint(total);
             return total;
-        }).get();
+        });
     }
 
     private CompletableFuture<JSONObject> request(
             FullAccountContext fullAccountContext,
+            SystemProxy proxy,
             String path,
             HttpMethod httpMethod,
             Map<String, Object> params,
             Map<String, Object> body,
             boolean auth
     ) {
-        return RestApiClientFactory.getClient(fullAccountContext.getProxy()).jsonRequest(
-                BASE_URL + path,
+        return RestApiClientFactory.getClient(proxy).jsonRequest(
+                endpoints.getBaseUrl() + path,
                 httpMethod,
-                auth ? buildAuthHeader(fullAccountContext) : buildHeader(fullAccountContext),
+                auth ? buildAuthHeader(fullAccountContext, proxy) : buildHeader(fullAccountContext),
                 params == null ? null : new JSONObject(params),
                 body == null ? null : new JSONObject(body)
-        ).thenApply(result -> {
-            if (result.getInteger("code") != 200) {
-                throw new RuntimeException("request error, " + result.get("message"));
+        ).whenComplete((result, e) -> {
+            if (e == null) {
+                ProxyHealthRegistry.getInstance().recordSuccess(proxy);
+            } else {
+                ProxyHealthRegistry.getInstance().recordFailure(proxy);
+            }
+        }).thenApply(result -> {
+            Integer code = result.getInteger("code");
+            if (code == null || code != 200) {
+                if (auth && code != null && (code == 401 || code == 403)) {
+                    // token已失效，丢弃该token下缓存的积分和请求头
+                    invalidateToken(fullAccountContext.getTokenInfo().getToken());
+                }
+                throw new ApiResponseException(code, "request error, " + result.get("message"));
             }
             return result.getJSONObject("data");
         });
     }
 
-    private Map<String, String> buildAuthHeader(FullAccountContext fullAccountContext) {
-        Map<String, String> headers = buildHeader(fullAccountContext);
+    /**
+     * 记录账户当前token，token轮换时清理旧token的积分缓存和请求头模板
+     */
+    private void trackToken(String userId, String token) {
+        if (StrUtil.isBlank(token)) return;
+        String previous = userTokens.put(userId, token);
+        if (previous != null && !previous.equals(token)) {
+            invalidateToken(previous);
+        }
+    }
+
+    private void invalidateToken(String token) {
+        if (token == null) return;
+        RewardCache.getInstance().invalidate(token);
+        headerTemplateCache.invalidate(token);
+    }
+
+    /**
+     * 鉴权请求头，返回缓存中共享的只读模板，只能直接交给 RestApiClient，不要在上面追加header
+     */
+    private Map<String, String> buildAuthHeader(FullAccountContext fullAccountContext, SystemProxy proxy) {
         String token = fullAccountContext.getTokenInfo().getToken();
         if (StrUtil.isBlank(token)) {
             throw new IllegalArgumentException("token is empty");
         }
-        headers.put(HeaderKey.AUTHORIZATION, token);
-        return headers;
+        return headerTemplateCache.authHeaders(
+                token,
+                proxy,
+                fullAccountContext,
+                () -> buildHeader(fullAccountContext),
+                HeaderKey.AUTHORIZATION
+        );
     }
 
     private Map<String, String> buildHeader(FullAccountContext fullAccountContext) {
@@ -140,34 +471,30 @@ public class AroNetworkApiImpl implements AroNetworkApi {
     }
 
     @NotNull
-    private static CompletableFuture<Integer> createEarnPointFuture(
+    private CompletableFuture<Integer> createEarnPointFuture(
             FullAccountContext fullAccountContext,
             String nodeId,
             String userId,
             int retry,
-            int reconnectDelay,
-            ExecutorService threadPool,
+            ReconnectPolicy reconnectPolicy,
+            String proxyPool,
             AppendLogger logger
     ) {
-        AppendLogger appendLogger = logger.newOne();
-        appendLogger.append("node[%s]".formatted(nodeId));
-        return CompletableFuture.supplyAsync(() -> {
-            AROClient aroClient = new AROClient(
-                    WS_URL,
-                    fullAccountContext.getProxy(),
-                    userId,
-                    nodeId,
-                    retry,
-                    reconnectDelay,
-                    threadPool,
-                    appendLogger
-            );
-            try {
-                aroClient.start();
-                return aroClient.getPintCount();
-            } catch (InterruptedException e) {
-                throw new RuntimeException(e);
-            }
-        }, threadPool);
+        AROClient aroClient = new AROClient(
+                endpoints.getWsUrl(),
+                fullAccountContext.getProxy(),
+                userId,
+                nodeId,
+                retry,
+                reconnectPolicy,
+                proxyPool,
+                NodeEventLog.of(nodeId, logger)
+        );
+        SessionCheckpointStore checkpointStore = SessionCheckpointStore.getInstance();
+        aroClient.restore(checkpointStore.get(nodeId));
+        AROClientRegistry.getInstance().register(aroClient);
+        return aroClient.startAsync(checkpointStore.planStartDelayMillis(nodeId, reconnectPolicy))
+                .whenComplete((v, e) -> AROClientRegistry.getInstance().unregister(aroClient))
+                .thenApply(v -> aroClient.getPintCount());
     }
 }
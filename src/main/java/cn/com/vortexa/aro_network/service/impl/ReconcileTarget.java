@@ -0,0 +1,58 @@
+package cn.com.vortexa.aro_network.service.impl;
+
+import cn.com.vortexa.aro_network.cache.NodeDescriptor;
+import cn.com.vortexa.base.util.log.AppendLogger;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 账户上一次启动时期望运行的节点，以及重新对账所需的参数
+ * version 为上次对账时节点描述的版本，对账时与框架重新加载的账户编译出的版本比较，相同则直接跳过
+ *
+ * @author helei
+ * @since 2025-10-18
+ */
+@Getter
+class ReconcileTarget {
+    private final String userId;
+    private volatile int retry;
+    private volatile int reconnectDelay;
+    private volatile AppendLogger logger;
+    private volatile long version;
+    private volatile List<String> nodeIds = List.of();
+
+    ReconcileTarget(String userId) {
+        this.userId = userId;
+    }
+
+    /**
+     * 更新期望状态
+     *
+     * @return 不再需要运行的节点
+     */
+    synchronized List<String> update(
+            int retry,
+            int reconnectDelay,
+            AppendLogger logger,
+            NodeDescriptor descriptor
+    ) {
+        this.retry = retry;
+        this.reconnectDelay = reconnectDelay;
+        this.logger = logger;
+        this.version = descriptor.getVersion();
+
+        Set<String> desired = new HashSet<>(descriptor.getNodeIds());
+        List<String> removed = new ArrayList<>();
+        for (String nodeId : nodeIds) {
+            if (!desired.contains(nodeId)) {
+                removed.add(nodeId);
+            }
+        }
+        this.nodeIds = descriptor.getNodeIds();
+        return removed;
+    }
+}
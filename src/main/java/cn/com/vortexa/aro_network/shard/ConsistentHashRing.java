@@ -0,0 +1,57 @@
+package cn.com.vortexa.aro_network.shard;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 一致性哈希环，每个实例映射多个虚拟节点
+ *
+ * @author helei
+ * @since 2025-10-16
+ */
+public final class ConsistentHashRing {
+    private final TreeMap<Long, String> ring = new TreeMap<>();
+
+    public ConsistentHashRing(Collection<String> instanceIds, int virtualNodes) {
+        for (String instanceId : instanceIds) {
+            for (int i = 0; i < virtualNodes; i++) {
+                ring.put(hash(instanceId + "#" + i), instanceId);
+            }
+        }
+    }
+
+    /**
+     * key 所属的实例
+     *
+     * @param key key
+     * @return instanceId，环为空时返回null
+     */
+    public String owner(String key) {
+        if (ring.isEmpty()) return null;
+        Map.Entry<Long, String> entry = ring.ceilingEntry(hash(key));
+        return (entry == null ? ring.firstEntry() : entry).getValue();
+    }
+
+    public boolean isEmpty() {
+        return ring.isEmpty();
+    }
+
+    /**
+     * FNV-1a 64 + murmur3 finalizer
+     */
+    static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,381 @@
+package cn.com.vortexa.aro_network.shard;
+
+import cn.com.vortexa.aro_network.exec.ExecutionLanes;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.lang.management.ManagementFactory;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * 多实例分片协调器，通过共享数据库实现
+ * 1.每个实例定时写入心跳，心跳未过期的实例组成一致性哈希环
+ * 2.节点按nodeId哈希到实例，实例需要持有节点租约才能启动该节点
+ * 3.租约随心跳续期，续期带条件 owner_id = 本实例 AND expires_at > now，只有仍然有效的租约才能续上；
+ * 本地记录每个租约的截止时间，续期失败或下一次续期赶不上截止时间时先停止本地会话（自我隔离），
+ * 数据库不可用时由独立的检查任务按截止时间隔离，保证租约过期、被其他实例接管前本地会话已经停止
+ * 4.节点不再属于本实例时先停止会话再释放租约；会话自行结束（如超过重试次数）时注销节点并释放租约
+ * 5.实例宕机后心跳和租约过期，其他实例接管
+ * 表结构使用通用SQL，可在MySQL或嵌入式数据库（H2等）上运行
+ *
+ * @author helei
+ * @since 2025-10-16
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "aro.shard", name = "enabled", havingValue = "true")
+public class ShardCoordinator {
+    private static final int VIRTUAL_NODES = 64;
+    private static volatile ShardCoordinator current;
+
+    private final DataSource dataSource;
+    @Getter
+    private final String instanceId;
+    private final long heartbeatMillis;
+    private final long leaseMillis;
+    private final int queryTimeoutSeconds;
+    private final LongSupplier clock;
+
+    private final Map<String, NodeHandle> nodes = new ConcurrentHashMap<>();
+    private final Map<String, Lease> owned = new ConcurrentHashMap<>();
+    private final List<ScheduledFuture<?>> tasks = new ArrayList<>();
+
+    @Autowired
+    public ShardCoordinator(
+            DataSource dataSource,
+            @Value("${aro.shard.instance-id:}") String instanceId,
+            @Value("${aro.shard.heartbeat-seconds:10}") long heartbeatSeconds,
+            @Value("${aro.shard.lease-seconds:30}") long leaseSeconds
+    ) {
+        this(
+                dataSource, instanceId, TimeUnit.SECONDS.toMillis(heartbeatSeconds),
+                TimeUnit.SECONDS.toMillis(leaseSeconds), System::currentTimeMillis
+        );
+    }
+
+    ShardCoordinator(DataSource dataSource, String instanceId, long heartbeatMillis, long leaseMillis, LongSupplier clock) {
+        if (leaseMillis <= heartbeatMillis * 2) {
+            // 至少要能在截止前再续一次，并留出一个心跳周期用于隔离
+            throw new IllegalArgumentException("lease must be longer than two heartbeats");
+        }
+        this.dataSource = dataSource;
+        this.instanceId = instanceId == null || instanceId.isBlank()
+                ? ManagementFactory.getRuntimeMXBean().getName()
+                : instanceId;
+        this.heartbeatMillis = heartbeatMillis;
+        this.leaseMillis = leaseMillis;
+        this.queryTimeoutSeconds = (int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(heartbeatMillis));
+        this.clock = clock;
+    }
+
+    /**
+     * 当前启用的协调器
+     *
+     * @return 未启用分片时为null
+     */
+    public static ShardCoordinator current() {
+        return current;
+    }
+
+    @PostConstruct
+    public void start() throws SQLException {
+        createTables();
+        current = this;
+        synchronized (tasks) {
+            tasks.add(ExecutionLanes.COORDINATION.scheduleWithFixedDelay(
+                    this::tick, 0, heartbeatMillis, TimeUnit.MILLISECONDS
+            ));
+            // 与 tick 分开调度，tick 卡在数据库上时仍能按截止时间隔离
+            tasks.add(ExecutionLanes.COORDINATION.scheduleWithFixedDelay(
+                    this::fenceExpiring, heartbeatMillis / 2, heartbeatMillis / 2, TimeUnit.MILLISECONDS
+            ));
+        }
+        log.info("shard coordinator started, instance[{}]", instanceId);
+    }
+
+    /**
+     * 停止续期和接管新节点，停机时在关闭会话前调用
+     */
+    public void suspend() {
+        synchronized (tasks) {
+            tasks.forEach(task -> task.cancel(false));
+            tasks.clear();
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        current = null;
+        suspend();
+        for (String nodeId : new ArrayList<>(owned.keySet())) {
+            stopNode(nodeId);
+        }
+        try (Connection conn = dataSource.getConnection()) {
+            execute(conn, "DELETE FROM aro_node_lease WHERE owner_id = ?", instanceId);
+            execute(conn, "DELETE FROM aro_shard_instance WHERE instance_id = ?", instanceId);
+        } catch (SQLException e) {
+            log.error("release shard leases error", e);
+        }
+    }
+
+    /**
+     * 注册需要运行的节点，获得租约后调用starter
+     *
+     * @param nodeId  nodeId
+     * @param starter 启动节点，返回会话结束的future
+     * @param stopper 停止节点
+     */
+    public void register(String nodeId, Supplier<CompletableFuture<?>> starter, Runnable stopper) {
+        nodes.put(nodeId, new NodeHandle(starter, stopper));
+    }
+
+    public void unregister(String nodeId) {
+        nodes.remove(nodeId);
+        if (stopNode(nodeId)) {
+            releaseLease(nodeId);
+        }
+    }
+
+    public boolean owns(String nodeId) {
+        return owned.containsKey(nodeId);
+    }
+
+    public int ownedCount() {
+        return owned.size();
+    }
+
+    void tick() {
+        long now = clock.getAsLong();
+        try (Connection conn = dataSource.getConnection()) {
+            heartbeat(conn, now);
+            ConsistentHashRing ring = new ConsistentHashRing(liveInstances(conn, now), VIRTUAL_NODES);
+            renewLeases(conn, now);
+
+            for (String nodeId : nodes.keySet()) {
+                boolean mine = instanceId.equals(ring.owner(nodeId));
+                if (mine && !owned.containsKey(nodeId)) {
+                    if (tryAcquire(conn, nodeId, now)) {
+                        startNode(nodeId, now + leaseMillis);
+                    }
+                } else if (!mine && owned.containsKey(nodeId)) {
+                    // 先停会话再释放租约
+                    stopNode(nodeId);
+                    execute(conn, "DELETE FROM aro_node_lease WHERE node_id = ? AND owner_id = ?", nodeId, instanceId);
+                }
+            }
+        } catch (Exception e) {
+            log.error("shard coordinator tick error", e);
+        } finally {
+            fenceExpiring();
+        }
+    }
+
+    /**
+     * 截止时间前来不及再续期一次的租约，停止本地会话
+     */
+    void fenceExpiring() {
+        long now = clock.getAsLong();
+        for (Map.Entry<String, Lease> entry : owned.entrySet()) {
+            if (now + heartbeatMillis >= entry.getValue().deadline) {
+                log.warn("node[{}] lease expiring at [{}] without renewal, stop local session",
+                        entry.getKey(), entry.getValue().deadline);
+                stopNode(entry.getKey());
+            }
+        }
+    }
+
+    /**
+     * 续期本实例仍然有效的租约，没有续上的节点立即停止
+     */
+    private void renewLeases(Connection conn, long now) throws SQLException {
+        if (owned.isEmpty()) return;
+        long expiresAt = now + leaseMillis;
+        int renewed = execute(conn,
+                "UPDATE aro_node_lease SET expires_at = ? WHERE owner_id = ? AND expires_at > ?",
+                expiresAt, instanceId, now
+        );
+        Set<String> held = renewedNodes(conn, expiresAt);
+        if (held.size() != renewed) {
+            // 同一时刻有其他写入，不能确定哪些续上了，只信任两次都确认的节点
+            log.warn("lease renew count mismatch, updated[{}] selected[{}]", renewed, held.size());
+        }
+        for (Map.Entry<String, Lease> entry : owned.entrySet()) {
+            if (held.contains(entry.getKey())) {
+                entry.getValue().deadline = expiresAt;
+            } else {
+                log.warn("node[{}] lease lost", entry.getKey());
+                stopNode(entry.getKey());
+            }
+        }
+    }
+
+    private void startNode(String nodeId, long deadline) {
+        NodeHandle handle = nodes.get(nodeId);
+        if (handle == null) {
+            releaseLease(nodeId);
+            return;
+        }
+        Lease lease = new Lease(deadline);
+        owned.put(nodeId, lease);
+        try {
+            CompletableFuture<?> session = handle.starter.get();
+            session.whenComplete((r, e) -> onSessionEnded(nodeId, handle, lease));
+            log.info("node[{}] acquired by [{}]", nodeId, instanceId);
+        } catch (Exception e) {
+            log.error("start node[{}] error", nodeId, e);
+            onSessionEnded(nodeId, handle, lease);
+        }
+    }
+
+    /**
+     * 会话结束，租约仍在本地登记说明不是协调器停止的，而是会话自行结束，注销节点并释放租约
+     */
+    private void onSessionEnded(String nodeId, NodeHandle handle, Lease lease) {
+        if (!owned.remove(nodeId, lease)) return;
+        nodes.remove(nodeId, handle);
+        log.info("node[{}] session ended, release lease", nodeId);
+        try {
+            ExecutionLanes.COORDINATION.execute(() -> releaseLease(nodeId));
+        } catch (RejectedExecutionException e) {
+            // 停机中，租约随实例一起释放或自然过期
+            log.warn("release node[{}] lease rejected, {}", nodeId, e.getMessage());
+        }
+    }
+
+    /**
+     * @return 是否停止了本地持有的节点
+     */
+    private boolean stopNode(String nodeId) {
+        if (owned.remove(nodeId) == null) return false;
+        NodeHandle handle = nodes.get(nodeId);
+        if (handle == null) return true;
+        try {
+            handle.stopper.run();
+        } catch (Exception e) {
+            log.error("stop node[{}] error", nodeId, e);
+        }
+        return true;
+    }
+
+    private void releaseLease(String nodeId) {
+        try (Connection conn = dataSource.getConnection()) {
+            execute(conn, "DELETE FROM aro_node_lease WHERE node_id = ? AND owner_id = ?", nodeId, instanceId);
+        } catch (SQLException e) {
+            log.error("release node[{}] lease error", nodeId, e);
+        }
+    }
+
+    private void heartbeat(Connection conn, long now) throws SQLException {
+        if (execute(conn, "UPDATE aro_shard_instance SET heartbeat_at = ? WHERE instance_id = ?", now, instanceId) == 0) {
+            execute(conn, "INSERT INTO aro_shard_instance (instance_id, heartbeat_at) VALUES (?, ?)", instanceId, now);
+        }
+    }
+
+    private List<String> liveInstances(Connection conn, long now) throws SQLException {
+        List<String> instances = new ArrayList<>();
+        try (PreparedStatement ps = conn.prepareStatement(
+                "SELECT instance_id FROM aro_shard_instance WHERE heartbeat_at > ? ORDER BY instance_id"
+        )) {
+            ps.setQueryTimeout(queryTimeoutSeconds);
+            ps.setLong(1, now - leaseMillis);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    instances.add(rs.getString(1));
+                }
+            }
+        }
+        return instances;
+    }
+
+    private Set<String> renewedNodes(Connection conn, long expiresAt) throws SQLException {
+        Set<String> renewed = new HashSet<>();
+        try (PreparedStatement ps = conn.prepareStatement(
+                "SELECT node_id FROM aro_node_lease WHERE owner_id = ? AND expires_at = ?"
+        )) {
+            ps.setQueryTimeout(queryTimeoutSeconds);
+            ps.setString(1, instanceId);
+            ps.setLong(2, expiresAt);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    renewed.add(rs.getString(1));
+                }
+            }
+        }
+        return renewed;
+    }
+
+    private boolean tryAcquire(Connection conn, String nodeId, long now) throws SQLException {
+        int updated = execute(conn,
+                "UPDATE aro_node_lease SET owner_id = ?, expires_at = ? WHERE node_id = ? AND (owner_id = ? OR expires_at < ?)",
+                instanceId, now + leaseMillis, nodeId, instanceId, now
+        );
+        if (updated > 0) return true;
+        try {
+            execute(conn, "INSERT INTO aro_node_lease (node_id, owner_id, expires_at) VALUES (?, ?, ?)",
+                    nodeId, instanceId, now + leaseMillis);
+            return true;
+        } catch (SQLException e) {
+            // 主键冲突，租约仍被其他实例持有
+            return false;
+        }
+    }
+
+    void createTables() throws SQLException {
+        try (Connection conn = dataSource.getConnection(); Statement statement = conn.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS aro_shard_instance ("
+                    + "instance_id VARCHAR(128) NOT NULL PRIMARY KEY, "
+                    + "heartbeat_at BIGINT NOT NULL)");
+            statement.execute("CREATE TABLE IF NOT EXISTS aro_node_lease ("
+                    + "node_id VARCHAR(128) NOT NULL PRIMARY KEY, "
+                    + "owner_id VARCHAR(128) NOT NULL, "
+                    + "expires_at BIGINT NOT NULL)");
+        }
+    }
+
+    private int execute(Connection conn, String sql, Object... args) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setQueryTimeout(queryTimeoutSeconds);
+            for (int i = 0; i < args.length; i++) {
+                ps.setObject(i + 1, args[i]);
+            }
+            return ps.executeUpdate();
+        }
+    }
+
+    private record NodeHandle(Supplier<CompletableFuture<?>> starter, Runnable stopper) {
+    }
+
+    /**
+     * 本地持有的租约，deadline 为最近一次成功续期后的过期时间
+     */
+    private static final class Lease {
+        private volatile long deadline;
+
+        private Lease(long deadline) {
+            this.deadline = deadline;
+        }
+    }
+}
@@ -1,32 +1,53 @@
 package cn.com.vortexa.aro_network.websocket;
 
-import cn.com.vortexa.base.util.log.AppendLogger;
+import cn.com.vortexa.aro_network.checkpoint.SessionCheckpoint;
+import cn.com.vortexa.aro_network.event.SessionEventBus;
+import cn.com.vortexa.aro_network.log.NodeEventLog;
+import cn.com.vortexa.aro_network.monitor.AROClientRegistry;
+import cn.com.vortexa.aro_network.monitor.LatencyTracker;
+import cn.com.vortexa.aro_network.proxy.ProxyHealthRegistry;
+import cn.com.vortexa.aro_network.proxy.ProxyKeys;
 import cn.com.vortexa.common.interfaces.SystemProxy;
-import com.alibaba.fastjson.JSONObject;
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import okhttp3.Response;
 import okhttp3.WebSocket;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.Map;
-import java.util.concurrent.ExecutorService;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
 @Slf4j
 public class AROClient extends SocketIOClient {
     private static final int PING_INTERVAL_SECONDS = 180;
 
+    @Getter
     private final String userId;
+    @Getter
     private final String nodeId;
     private final int retryLimit;
-    private final int reconnectDelay;
-    private final AppendLogger logger;
-    private final ExecutorService executorService;
-    private PingTask pingTask;
+    /**
+     * 可以迁移到的代理池，为空时不迁移
+     */
+    private final String proxyPool;
+    private final ReconnectPolicy reconnectPolicy;
+    @Getter
+    private final NodeEventLog eventLog;
+    /**
+     * 心跳注册，auth 回调、关闭、重连可能在不同线程上，替换和取消都用 getAndSet，保证每个注册只被取消一次
+     */
+    private final AtomicReference<HeartbeatScheduler.Registration> pingRegistration = new AtomicReference<>();
+    private volatile ReconnectScheduler.Handle reconnectHandle;
 
-    private final AtomicInteger pingCounter = new AtomicInteger(0);
-    private final AtomicInteger reconnectCounter = new AtomicInteger(0);
+    // 计数和时间戳存放在 SessionTable：ping次数、重连次数、连续失败次数（鉴权成功后清零）、
+    // 检查点中恢复的重连次数（不计入本次的重试限制）、连接帧发出时间、鉴权往返延迟
+    private final AtomicBoolean reconnectPending = new AtomicBoolean(false);
+    private final NodeFrames frames;
+    @Getter
+    private volatile String lastCloseReason;
 
     public AROClient(
             String wsUrl,
@@ -34,9 +55,9 @@ public class AROClient extends SocketIOClient {
             String userId,
             String nodeId,
             int retry,
-            int reconnectDelay,
-            ExecutorService executorService,
-            AppendLogger logger
+            ReconnectPolicy reconnectPolicy,
+            String proxyPool,
+            NodeEventLog eventLog
     ) {
         super(wsUrl, proxy);
         this.userId = userId;
@@ -46,10 +67,18 @@ public class AROClient extends SocketIOClient {
                     this.userId, this.nodeId
             ));
         }
+        this.frames = NodeFrames.of(userId, nodeId);
         this.retryLimit = retry;
-        this.reconnectDelay = reconnectDelay;
-        this.executorService = executorService;
-        this.logger = logger;
+        this.reconnectPolicy = reconnectPolicy;
+        this.proxyPool = proxyPool;
+        this.eventLog = eventLog;
+        SessionEventBus.getInstance().sessionCreated(this);
+        markCounted();
+    }
+
+    @Override
+    protected void onStateChanged(SessionState from, SessionState to) {
+        SessionEventBus.getInstance().stateChanged(this, from, to);
     }
 
     @Override
@@ -59,137 +88,287 @@ public class AROClient extends SocketIOClient {
 
     @NotNull
     @Override
-    protected Object handlerOpen(String content) {
-        logger.debug("channel open. -> " + content);
-
-        return JSONObject.toJSONString(Map.of("token", Map.of(
-                "nodeId", nodeId,
-                "userId", userId
-        )));
+    protected MessageResponse handlerOpen(String content) {
+        eventLog.debug("channel open. -> %s", content);
+        TABLE.setLong(slot, SessionTable.CONNECT_SENT_NANOS, System.nanoTime());
+        return frames.getConnectResponse();
     }
 
     @Override
     public void onFailure(@NotNull WebSocket webSocket, @NotNull Throwable t, Response response) {
+        if (isStale(webSocket)) return;
+        eventLog.warn("channel failure, %s", t.getMessage());
         closeAndTryReconnect();
     }
 
 
+    @Override
+    protected void onOpenRejected(RejectedExecutionException e) {
+        lastCloseReason = "open rejected";
+        eventLog.warn("open rejected, %s, close and reconnect", e.getMessage());
+        // 停机时重连同样会被拒绝，由 onReconnectRejected 结束会话
+        closeAndTryReconnect();
+    }
+
     @Override
     public void onClosed(@NotNull WebSocket webSocket, int code, @NotNull String reason) {
+        if (isStale(webSocket)) return;
         closeAndTryReconnect();
     }
 
     @NotNull
     @Override
     protected MessageResponse handlerConnect(String content) {
-        logger.debug("channel connected. -> " + content);
+        eventLog.debug("channel connected. -> %s", content);
+        setState(SessionState.CONNECTED);
         return MessageResponse.noResponse();
     }
 
     @NotNull
     @Override
-    protected MessageResponse handlerEvent(String event, Object data) {
-        logger.debug("channel event -> %s[%s]".formatted(event, data));
+    protected MessageResponse handlerEvent(String event, String data) {
+        eventLog.debug("channel event -> %s[%s]", event, data);
         return switch (event) {
             case "auth" -> {
-                logger.debug("start send pint task...");
-                pingTask = new PingTask(
-                        getWebSocket(),
-                        PING_INTERVAL_SECONDS,
-                        JSONObject.toJSONString(Map.of(
-                                "nodeId", nodeId,
-                                "userId", userId
-                        )),
-                        pingCounter,
-                        logger
-                );
-                executorService.execute(pingTask);
+                eventLog.debug("start send pint task...");
+                recordAuthLatency();
+                TABLE.setInt(slot, SessionTable.BACKOFF_ATTEMPT, 0);
+                TABLE.setLong(slot, SessionTable.LAST_AUTH_TIME, System.currentTimeMillis());
+                setState(SessionState.AUTHED);
+                cancelPing();
+                sendPing();
+                try {
+                    HeartbeatScheduler.Registration previous = pingRegistration.getAndSet(
+                            HeartbeatScheduler.getInstance().register(this::sendPing, PING_INTERVAL_SECONDS)
+                    );
+                    if (previous != null) {
+                        previous.cancel();
+                    }
+                } catch (RejectedExecutionException e) {
+                    // 没有心跳的连接会被服务端判定离线，不能保持已鉴权状态
+                    lastCloseReason = "heartbeat rejected";
+                    eventLog.warn("heartbeat rejected, %s, close and reconnect", e.getMessage());
+                    closeAndTryReconnect();
+                }
                 yield MessageResponse.noResponse();
             }
             case "ping" -> {
+                recordInterval(LatencyTracker.Metric.SERVER_PING_INTERVAL, SessionTable.LAST_SERVER_PING_NANOS);
                 MessageResponse messageResponse = MessageResponse.eventResponse("pong", data);
-                logger.debug("send pong <- " + messageResponse.toSendMsg());
+                eventLog.debug("send pong <- %s", messageResponse.toSendMsg());
                 yield messageResponse;
             }
             default -> MessageResponse.noResponse();
         };
     }
 
+    @NotNull
+    @Override
+    protected MessageResponse handlerPing(String content) {
+        recordInterval(LatencyTracker.Metric.ENGINE_PING_INTERVAL, SessionTable.LAST_ENGINE_PING_NANOS);
+        return super.handlerPing(content);
+    }
+
+    /**
+     * 连接帧到auth事件的往返延迟，服务端对每次连接都会回复auth，不依赖服务端是否回复心跳
+     */
+    private void recordAuthLatency() {
+        long sentAt = TABLE.getLong(slot, SessionTable.CONNECT_SENT_NANOS);
+        if (sentAt <= 0) return;
+        TABLE.setLong(slot, SessionTable.CONNECT_SENT_NANOS, 0);
+        long latencyMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - sentAt);
+        TABLE.setLong(slot, SessionTable.LAST_AUTH_LATENCY_MILLIS, latencyMillis);
+        AROClientRegistry.getInstance().recordAuthLatency(latencyMillis);
+        LatencyTracker.getInstance().record(getProxy(), LatencyTracker.Metric.AUTH_ACK, latencyMillis);
+        ProxyHealthRegistry.getInstance().recordAuthLatency(getProxy(), latencyMillis);
+    }
+
+    /**
+     * 记录与上一次的间隔，并把本次时间写入 field
+     */
+    private void recordInterval(LatencyTracker.Metric metric, int field) {
+        long now = System.nanoTime();
+        long lastNanos = TABLE.getLong(slot, field);
+        if (lastNanos > 0) {
+            LatencyTracker.getInstance().record(getProxy(), metric, TimeUnit.NANOSECONDS.toMillis(now - lastNanos));
+        }
+        TABLE.setLong(slot, field, now);
+    }
+
     public Integer getPintCount() {
-        return pingCounter.get();
+        return TABLE.getInt(slot, SessionTable.PING_COUNT);
     }
 
-    private void closeAndTryReconnect() {
-        if (pingTask != null) {
-            pingTask.stop();
-            pingTask = null;
+    public Integer getReconnectCount() {
+        return TABLE.getInt(slot, SessionTable.RESTORED_RECONNECTS) + TABLE.getInt(slot, SessionTable.RECONNECT_COUNT);
+    }
+
+    public int getBackoffAttempt() {
+        return TABLE.getInt(slot, SessionTable.BACKOFF_ATTEMPT);
+    }
+
+    public long getLastAuthLatencyMillis() {
+        return TABLE.getLong(slot, SessionTable.LAST_AUTH_LATENCY_MILLIS);
+    }
+
+    public long getLastAuthTime() {
+        return TABLE.getLong(slot, SessionTable.LAST_AUTH_TIME);
+    }
+
+    /**
+     * 从检查点恢复计数，需在启动前调用
+     *
+     * @param checkpoint checkpoint
+     */
+    public void restore(SessionCheckpoint checkpoint) {
+        if (checkpoint == null) return;
+        TABLE.setInt(slot, SessionTable.PING_COUNT, checkpoint.getPingCount());
+        TABLE.setInt(slot, SessionTable.RESTORED_RECONNECTS, checkpoint.getReconnectCount());
+        TABLE.setInt(slot, SessionTable.BACKOFF_ATTEMPT, checkpoint.getBackoffAttempt());
+        TABLE.setLong(slot, SessionTable.LAST_AUTH_TIME, checkpoint.getLastAuthTime());
+    }
+
+    /**
+     * 延迟启动，经由重连调度器执行，受全局重连限速约束
+     *
+     * @param delayMillis delayMillis
+     * @return 生命周期结束的future
+     */
+    public CompletableFuture<Void> startAsync(long delayMillis) {
+        if (delayMillis <= 0) {
+            return startAsync();
         }
-        super.close();
+        CompletableFuture<Void> future = lifecycle();
+        if (reconnectPending.compareAndSet(false, true)) {
+            setState(SessionState.RECONNECTING);
+            eventLog.info("deferred start after: %s(ms)", delayMillis);
+            reconnectHandle = ReconnectScheduler.getInstance().schedule(this::reconnect, delayMillis, this::onReconnectRejected);
+        }
+        return future;
+    }
 
-        if (reconnectCounter.get() <= retryLimit) {
-            this.executorService.submit(() -> {
-                int count = reconnectCounter.incrementAndGet();
-                if (count <= retryLimit) {
-                    logger.warn("reconnect after: %s(min)".formatted(reconnectDelay));
-                    try {
-                        TimeUnit.MINUTES.sleep(reconnectDelay);
-                        if (!super.isRunning()) {
-                            super.start();
-                            logger.info("reconnected");
-                        } else {
-                            logger.warn("reconnect canceled, already running");
-                        }
-                    } catch (InterruptedException e) {
-                        reconnectCounter.set(retryLimit + 1);   //  不让继续重试
-                        super.close();
-                        logger.error("reconnect interrupted.", e);
-                    }
-                }
-            });
+    private void sendPing() {
+        // 上一次的数据还没发出去时不再堆积心跳
+        if (!sendIfIdle(frames.getPingFrame())) {
+            eventLog.debug("ping skipped, queued[%s]bytes", getSendQueueBytes());
+            return;
         }
+        eventLog.debug("send ping: %s", TABLE.addInt(slot, SessionTable.PING_COUNT, 1));
+        SessionTotals.getInstance().ping();
+        SessionEventBus.getInstance().ping(this);
     }
 
-    private static class PingTask implements Runnable {
-        private final WebSocket webSocket;
-        private final int intervalSeconds;
-        private final String pingMessage;
-        private final AppendLogger logger;
-        private final AtomicInteger counter;
-
-        private volatile boolean running = true;
-
-        private PingTask(
-                WebSocket webSocket,
-                int intervalSeconds,
-                String pingMessage,
-                AtomicInteger pingCounter,
-                AppendLogger logger
-        ) {
-            this.webSocket = webSocket;
-            this.intervalSeconds = intervalSeconds;
-            this.pingMessage = pingMessage;
-            this.counter = pingCounter;
-            this.logger = logger;
+    @Override
+    protected void onSendRejected(String reason) {
+        lastCloseReason = reason;
+        eventLog.warn("%s, close and reconnect", reason);
+        closeAndTryReconnect();
+    }
+
+    private void cancelPing() {
+        HeartbeatScheduler.Registration registration = pingRegistration.getAndSet(null);
+        if (registration != null) {
+            registration.cancel();
         }
+    }
 
-        @Override
-        public void run() {
-            while (running) {
-                try {
-                    logger.debug("send ping: " + counter.incrementAndGet());
-                    webSocket.send(MessageResponse.eventResponse("ping", pingMessage).toSendMsg());
-                    TimeUnit.SECONDS.sleep(intervalSeconds);
-                } catch (InterruptedException e) {
-                    running = false;
-                    logger.warn("send ping task interrupted.");
-                } catch (Exception e) {
-                    logger.error("send ping error", e);
-                }
+    /**
+     * 重连后旧连接的回调不再处理
+     */
+    private boolean isStale(WebSocket webSocket) {
+        return webSocket != getWebSocket();
+    }
+
+    private void closeAndTryReconnect() {
+        cancelPing();
+        super.close();
+        if (super.isTerminated()) {
+            return;
+        }
+        // onFailure、onClosed 可能同时触发，只保留一次重连
+        if (!reconnectPending.compareAndSet(false, true)) {
+            return;
+        }
+
+        int count = TABLE.addInt(slot, SessionTable.RECONNECT_COUNT, 1);
+        SessionTotals.getInstance().reconnect();
+        if (count > retryLimit) {
+            eventLog.warn("reconnect count over limit[%s], stop", retryLimit);
+            SessionEventBus.getInstance().failed(this, "reconnect count over limit");
+            super.terminate(null);
+            return;
+        }
+        setState(SessionState.RECONNECTING);
+        long delay = reconnectPolicy.nextDelayMillis(TABLE.addInt(slot, SessionTable.BACKOFF_ATTEMPT, 1));
+        eventLog.warn("reconnect[%s] after: %s(ms)", count + "/" + retryLimit, delay);
+        reconnectHandle = ReconnectScheduler.getInstance().schedule(this::reconnect, delay, this::onReconnectRejected);
+    }
+
+    /**
+     * 重连无法调度（停机或通道已满），结束会话，避免一直停留在 RECONNECTING
+     */
+    private void onReconnectRejected(RejectedExecutionException e) {
+        reconnectHandle = null;
+        reconnectPending.set(false);
+        if (super.isTerminated()) return;
+        lastCloseReason = "reconnect rejected";
+        eventLog.warn("reconnect rejected, %s, stop", e.getMessage());
+        SessionEventBus.getInstance().failed(this, "reconnect rejected");
+        super.terminate(e);
+    }
+
+    private void reconnect() {
+        reconnectHandle = null;
+        reconnectPending.set(false);
+        if (super.isTerminated()) {
+            eventLog.warn("reconnect canceled, client terminated");
+        } else if (!super.isRunning()) {
+            if (!ensureUsableProxy()) {
+                return;
             }
+            TABLE.setLong(slot, SessionTable.LAST_SERVER_PING_NANOS, 0);
+            TABLE.setLong(slot, SessionTable.LAST_ENGINE_PING_NANOS, 0);
+            super.connect();
+            eventLog.info("reconnected");
+        } else {
+            eventLog.warn("reconnect canceled, already running");
         }
+    }
 
-        public void stop() {
-            running = false;
+    /**
+     * 当前代理不可用时，允许迁移则换到健康代理，否则等代理冷却结束后再重连（不消耗重试次数）
+     *
+     * @return 是否可以立即连接
+     */
+    private boolean ensureUsableProxy() {
+        ProxyHealthRegistry healthRegistry = ProxyHealthRegistry.getInstance();
+        SystemProxy current = getProxy();
+        if (healthRegistry.isUsable(current)) {
+            return true;
+        }
+        SystemProxy alternative = proxyPool != null ? healthRegistry.selectHealthy(proxyPool, current, nodeId) : null;
+        if (alternative != null) {
+            eventLog.warn(
+                    "proxy[%s] unhealthy, migrate to [%s]",
+                    ProxyKeys.label(current), ProxyKeys.label(alternative)
+            );
+            setProxy(alternative);
+            return true;
+        }
+        long wait = Math.max(1, healthRegistry.cooldownRemainingMillis(current));
+        eventLog.warn("proxy[%s] unhealthy, reconnect deferred: %s(ms)", ProxyKeys.label(current), wait);
+        reconnectPending.set(true);
+        reconnectHandle = ReconnectScheduler.getInstance().schedule(this::reconnect, wait, this::onReconnectRejected);
+        return false;
+    }
+
+    @Override
+    public void shutdown() {
+        ReconnectScheduler.Handle handle = reconnectHandle;
+        if (handle != null) {
+            handle.cancel();
         }
+        cancelPing();
+        super.shutdown();
     }
 }
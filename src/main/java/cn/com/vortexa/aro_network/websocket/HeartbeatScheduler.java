@@ -0,0 +1,81 @@
+package cn.com.vortexa.aro_network.websocket;
+
+import cn.com.vortexa.aro_network.exec.ExecutionLanes;
+import cn.com.vortexa.aro_network.exec.ScheduledLane;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 所有节点共享的心跳调度器，每个连接只占用一个定时任务，不占用线程
+ *
+ * @author helei
+ * @since 2025-10-02
+ */
+@Slf4j
+public class HeartbeatScheduler {
+    private static final HeartbeatScheduler INSTANCE = new HeartbeatScheduler(ExecutionLanes.HEARTBEAT);
+
+    private final ScheduledLane lane;
+
+    public HeartbeatScheduler(ScheduledLane lane) {
+        this.lane = lane;
+    }
+
+    public static HeartbeatScheduler getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * 注册心跳任务，首次触发时间在[0, interval)内随机，避免大量节点同时发送
+     * 通道已停止或已满时抛出异常，调用方需要据此关闭连接，不能停留在没有心跳的已鉴权状态
+     *
+     * @param heartbeat       heartbeat
+     * @param intervalSeconds intervalSeconds
+     * @return 用于注销的句柄
+     * @throws RejectedExecutionException 无法注册
+     */
+    public Registration register(Runnable heartbeat, int intervalSeconds) {
+        long intervalMillis = TimeUnit.SECONDS.toMillis(intervalSeconds);
+        long initialDelay = ThreadLocalRandom.current().nextLong(intervalMillis);
+        ScheduledFuture<?> future = lane.scheduleAtFixedRate(() -> {
+            try {
+                heartbeat.run();
+            } catch (Exception e) {
+                // 异常不能抛出，否则后续心跳会被取消
+                log.error("heartbeat error", e);
+            }
+        }, initialDelay, intervalMillis, TimeUnit.MILLISECONDS);
+        return new Registration(future);
+    }
+
+    public int registeredCount() {
+        return lane.queueDepth();
+    }
+
+    /**
+     * 停止所有心跳，不再接受注册
+     */
+    public void shutdown() {
+        lane.shutdownNow();
+    }
+
+    public static final class Registration {
+        private final ScheduledFuture<?> future;
+
+        private Registration(ScheduledFuture<?> future) {
+            this.future = future;
+        }
+
+        public void cancel() {
+            future.cancel(false);
+        }
+
+        public boolean isCancelled() {
+            return future.isCancelled();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package cn.com.vortexa.aro_network.websocket;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONObject;
+import lombok.Getter;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 节点固定不变的帧，只构建一次，重连时直接复用
+ * 缓存的生命周期由 NodeDescriptorCache 管理，节点从账户描述中移除时一起淘汰
+ *
+ * @author helei
+ * @since 2025-10-04
+ */
+@Getter
+public final class NodeFrames {
+    private static final Map<String, NodeFrames> CACHE = new ConcurrentHashMap<>();
+
+    private final String userId;
+    private final String nodeId;
+    /**
+     * 鉴权数据 {"nodeId":"","userId":""}
+     */
+    private final String authPayload;
+    /**
+     * 连接帧 40{"token":{...}}
+     */
+    private final SocketIOClient.MessageResponse connectResponse;
+    /**
+     * ping事件帧 42["ping","{...}"]
+     */
+    private final String pingFrame;
+
+    private NodeFrames(String userId, String nodeId) {
+        this.userId = userId;
+        this.nodeId = nodeId;
+        this.authPayload = JSONObject.toJSONString(Map.of(
+                "nodeId", nodeId,
+                "userId", userId
+        ));
+        this.connectResponse = SocketIOClient.MessageResponse.connectResponse(
+                JSONObject.toJSONString(Map.of("token", Map.of(
+                        "nodeId", nodeId,
+                        "userId", userId
+                )))
+        );
+        // ping 的数据是字符串形式的json
+        this.pingFrame = SocketIOFrameCodec.encodeEvent("ping", JSON.toJSONString(authPayload));
+    }
+
+    public static NodeFrames of(String userId, String nodeId) {
+        return CACHE.computeIfAbsent(cacheKey(userId, nodeId), k -> new NodeFrames(userId, nodeId));
+    }
+
+    public static void evict(String userId, String nodeId) {
+        CACHE.remove(cacheKey(userId, nodeId));
+    }
+
+    private static String cacheKey(String userId, String nodeId) {
+        return userId + "#" + nodeId;
+    }
+}
@@ -0,0 +1,416 @@
+package cn.com.vortexa.aro_network.websocket;
+
+import cn.com.vortexa.aro_network.config.AroConfig;
+import cn.com.vortexa.aro_network.exec.ExecutionLanes;
+import cn.com.vortexa.aro_network.exec.ScheduledLane;
+import cn.com.vortexa.aro_network.exec.VirtualLane;
+import cn.com.vortexa.aro_network.proxy.ProxyHealthRegistry;
+import cn.com.vortexa.aro_network.proxy.ProxyKeys;
+import cn.com.vortexa.common.interfaces.SystemProxy;
+import cn.com.vortexa.common.util.http.RestApiClientFactory;
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.WebSocket;
+import okhttp3.WebSocketListener;
+import okio.ByteString;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * 按代理管理websocket连接，同一代理下的节点共享 OkHttpClient（dispatcher、连接池），
+ * 并限制同时进行的握手数量、错开握手时间，避免批量启动时被代理限流
+ * websocket 在整个会话期间占用 dispatcher 的请求名额，dispatcher 不限制请求数，只由握手名额限流；
+ * 握手超时后取消连接并释放名额，避免卡住的握手占满名额
+ *
+ * @author helei
+ * @since 2025-10-05
+ */
+@Slf4j
+public class ProxyConnectionManager {
+    public static final int DEFAULT_MAX_CONCURRENT_OPENS = 8;
+    public static final long DEFAULT_OPEN_STAGGER_MILLIS = 200;
+    public static final long DEFAULT_HANDSHAKE_TIMEOUT_SECONDS = 30;
+    public static final String HANDSHAKE_TIMEOUT_SECONDS_KEY = "aro.ws.handshake-timeout-seconds";
+
+    private static final ProxyConnectionManager INSTANCE = new ProxyConnectionManager(
+            ExecutionLanes.WS_OPEN, ExecutionLanes.WS_IO,
+            DEFAULT_MAX_CONCURRENT_OPENS, DEFAULT_OPEN_STAGGER_MILLIS,
+            TimeUnit.SECONDS.toMillis(AroConfig.getLong(HANDSHAKE_TIMEOUT_SECONDS_KEY, DEFAULT_HANDSHAKE_TIMEOUT_SECONDS))
+    );
+
+    private final int maxConcurrentOpens;
+    private final long openStaggerNanos;
+    private final long handshakeTimeoutMillis;
+    private final ConnectionPool connectionPool = new ConnectionPool(32, 5, TimeUnit.MINUTES);
+    private final Map<Object, ProxyLane> lanes = new ConcurrentHashMap<>();
+    private final ScheduledLane scheduler;
+    private final VirtualLane ioLane;
+    private volatile boolean accepting = true;
+
+    public ProxyConnectionManager(
+            ScheduledLane lane, VirtualLane ioLane, int maxConcurrentOpens, long openStaggerMillis, long handshakeTimeoutMillis
+    ) {
+        this.maxConcurrentOpens = maxConcurrentOpens;
+        this.openStaggerNanos = TimeUnit.MILLISECONDS.toNanos(openStaggerMillis);
+        this.handshakeTimeoutMillis = handshakeTimeoutMillis;
+        this.scheduler = lane;
+        this.ioLane = ioLane;
+    }
+
+    public static ProxyConnectionManager getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * 获取代理共享的 OkHttpClient
+     *
+     * @param proxy proxy
+     * @return OkHttpClient
+     */
+    public OkHttpClient getClient(SystemProxy proxy) {
+        return lane(proxy).client;
+    }
+
+    /**
+     * 创建连接，调用 Connection.open 后才排队握手
+     * 调用方可以先保存连接再打开，同步回调的拒绝也能识别是否为当前连接
+     *
+     * @param proxy    proxy
+     * @param request  request
+     * @param listener listener
+     * @return Connection
+     */
+    public Connection newConnection(SystemProxy proxy, Request request, WebSocketListener listener) {
+        return new Connection(lane(proxy), request, listener);
+    }
+
+    /**
+     * 停止建立新连接，丢弃排队中的握手，被丢弃的连接回调拒绝
+     *
+     * @return 被丢弃的握手数
+     */
+    public int stopAccepting() {
+        accepting = false;
+        int dropped = 0;
+        for (ProxyLane lane : lanes.values()) {
+            dropped += lane.cancelQueued();
+        }
+        return dropped;
+    }
+
+    /**
+     * 释放调度线程、dispatcher线程和连接池，需在连接全部关闭后调用
+     */
+    public void shutdown() {
+        stopAccepting();
+        scheduler.shutdownNow();
+        ioLane.shutdownNow();
+        connectionPool.evictAll();
+    }
+
+    /**
+     * 等待握手的连接数
+     *
+     * @return count
+     */
+    public int pendingOpens() {
+        int count = 0;
+        for (ProxyLane lane : lanes.values()) {
+            count += lane.pendingCount();
+        }
+        return count;
+    }
+
+    private ProxyLane lane(SystemProxy proxy) {
+        return lanes.computeIfAbsent(ProxyKeys.key(proxy), k -> new ProxyLane(proxy));
+    }
+
+    private final class ProxyLane {
+        private final SystemProxy proxy;
+        private final OkHttpClient client;
+        private final Queue<Connection> queue = new ArrayDeque<>();
+        private int opening = 0;
+        private long nextSlotNanos = 0;
+
+        private ProxyLane(SystemProxy proxy) {
+            this.proxy = proxy;
+            // 所有代理的 dispatcher 共享 ws-io 通道，websocket 读循环运行在虚拟线程上，通道满时连接失败后走重连
+            Dispatcher dispatcher = new Dispatcher(ioLane.asExecutorService());
+            // 会话存活期间一直占用名额，有上限时超出的连接会永远排队并占住握手名额
+            dispatcher.setMaxRequests(Integer.MAX_VALUE);
+            dispatcher.setMaxRequestsPerHost(Integer.MAX_VALUE);
+            this.client = RestApiClientFactory.getClient(proxy).getOkHttpClient().newBuilder()
+                    .dispatcher(dispatcher)
+                    .connectionPool(connectionPool)
+                    .build();
+        }
+
+        /**
+         * 排队握手，拒绝的连接在锁外回调，避免与客户端的锁形成环
+         */
+        private void enqueue(Connection connection) {
+            List<Connection> rejected;
+            synchronized (this) {
+                if (accepting) {
+                    queue.offer(connection);
+                    rejected = drain();
+                } else {
+                    connection.rejectCause = new RejectedExecutionException("connection manager stopped");
+                    rejected = List.of(connection);
+                }
+            }
+            rejected.forEach(Connection::reject);
+        }
+
+        private void release() {
+            List<Connection> rejected;
+            synchronized (this) {
+                opening--;
+                rejected = drain();
+            }
+            rejected.forEach(Connection::reject);
+        }
+
+        /**
+         * 握手超时检查
+         */
+        private ScheduledFuture<?> scheduleHandshakeTimeout(Runnable onTimeout) {
+            return scheduler.schedule(onTimeout, handshakeTimeoutMillis, TimeUnit.MILLISECONDS);
+        }
+
+        private synchronized int pendingCount() {
+            return queue.size();
+        }
+
+        private int cancelQueued() {
+            List<Connection> dropped;
+            synchronized (this) {
+                dropped = new ArrayList<>(queue.size());
+                for (Connection connection : queue) {
+                    if (connection.cancelled) continue;
+                    connection.rejectCause = new RejectedExecutionException("connection manager stopped");
+                    dropped.add(connection);
+                }
+                queue.clear();
+            }
+            dropped.forEach(Connection::reject);
+            return dropped.size();
+        }
+
+        /**
+         * 在锁内调用
+         *
+         * @return 调度被拒绝、需要回调的连接
+         */
+        private List<Connection> drain() {
+            List<Connection> rejected = List.of();
+            while (opening < maxConcurrentOpens) {
+                Connection next = queue.poll();
+                if (next == null) break;
+                if (next.cancelled) continue;
+
+                opening++;
+                long now = System.nanoTime();
+                long slot = Math.max(now, nextSlotNanos);
+                nextSlotNanos = slot + openStaggerNanos;
+                try {
+                    scheduler.schedule(next::dispatch, slot - now, TimeUnit.NANOSECONDS);
+                } catch (RejectedExecutionException e) {
+                    // 通道已满或已停止，放弃这次握手，由客户端决定重连还是结束
+                    log.error("ws open rejected, {}", e.getMessage());
+                    opening--;
+                    next.rejectCause = e;
+                    if (rejected.isEmpty()) {
+                        rejected = new ArrayList<>();
+                    }
+                    rejected.add(next);
+                }
+            }
+            return rejected;
+        }
+    }
+
+    /**
+     * 排队中或已建立的websocket连接
+     */
+    public static final class Connection {
+        private final ProxyLane lane;
+        private final Request request;
+        private final WebSocketListener listener;
+        private volatile boolean cancelled = false;
+        private final AtomicReference<WebSocket> webSocket = new AtomicReference<>();
+        private volatile long dispatchNanos;
+        private volatile Consumer<RejectedExecutionException> onRejected;
+        private RejectedExecutionException rejectCause;
+
+        private Connection(ProxyLane lane, Request request, WebSocketListener listener) {
+            this.lane = lane;
+            this.request = request;
+            this.listener = listener;
+        }
+
+        public WebSocket getWebSocket() {
+            return webSocket.get();
+        }
+
+        /**
+         * 排队握手，已停止接受连接、握手调度被拒绝或排队中被丢弃时回调 onRejected（可能在调用线程上立即回调），
+         * 此时不会再有 WebSocketListener 的回调，调用方需要据此重连或结束会话
+         *
+         * @param onRejected 握手无法进行时的回调
+         */
+        public void open(Consumer<RejectedExecutionException> onRejected) {
+            this.onRejected = onRejected;
+            lane.enqueue(this);
+        }
+
+        private void reject() {
+            cancelled = true;
+            Consumer<RejectedExecutionException> callback = onRejected;
+            if (callback != null) {
+                callback.accept(rejectCause);
+            }
+        }
+
+        /**
+         * 发布连接对应的 WebSocket
+         * 回调可能早于 newWebSocket 返回，回调中先用参数发布，监听方随后就能拿到同一个实例
+         */
+        private void bind(WebSocket ws) {
+            webSocket.compareAndSet(null, ws);
+        }
+
+        public void close(int code, String reason) {
+            cancelled = true;
+            WebSocket ws = webSocket.get();
+            if (ws != null) {
+                ws.close(code, reason);
+            }
+        }
+
+        private void dispatch() {
+            if (cancelled) {
+                lane.release();
+                return;
+            }
+            dispatchNanos = System.nanoTime();
+            PermitReleasingListener permitListener = new PermitReleasingListener(this);
+            WebSocket ws = lane.client.newWebSocket(request, permitListener);
+            bind(ws);
+            permitListener.watchHandshake(ws);
+            // 与 close 并发时，close 可能没有看到刚创建的连接，这里补上关闭
+            if (cancelled) {
+                ws.close(1000, "cancelled");
+            }
+        }
+    }
+
+    /**
+     * 握手完成（成功、失败或超时）后释放代理的握手名额，并记录代理健康度
+     */
+    private static final class PermitReleasingListener extends WebSocketListener {
+        private final Connection connection;
+        private final WebSocketListener delegate;
+        private final AtomicBoolean released = new AtomicBoolean(false);
+        private volatile ScheduledFuture<?> handshakeTimeout;
+
+        private PermitReleasingListener(Connection connection) {
+            this.connection = connection;
+            this.delegate = connection.listener;
+        }
+
+        private void release() {
+            if (released.compareAndSet(false, true)) {
+                ScheduledFuture<?> timeout = handshakeTimeout;
+                if (timeout != null) {
+                    timeout.cancel(false);
+                }
+                connection.lane.release();
+            }
+        }
+
+        /**
+         * 握手超时后取消连接（回调 onFailure 走重连）并释放名额
+         */
+        private void watchHandshake(WebSocket ws) {
+            if (released.get()) return;
+            try {
+                handshakeTimeout = connection.lane.scheduleHandshakeTimeout(() -> {
+                    if (released.get()) return;
+                    log.warn("ws handshake timeout, proxy[{}]", ProxyKeys.label(connection.lane.proxy));
+                    release();
+                    ws.cancel();
+                });
+            } catch (RejectedExecutionException e) {
+                // 通道已停止，不再检查超时
+                return;
+            }
+            // 握手在定时任务提交前已完成
+            if (released.get()) {
+                handshakeTimeout.cancel(false);
+            }
+        }
+
+        @Override
+        public void onOpen(@NotNull WebSocket webSocket, @NotNull Response response) {
+            connection.bind(webSocket);
+            release();
+            ProxyHealthRegistry.getInstance().recordHandshake(
+                    connection.lane.proxy,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - connection.dispatchNanos)
+            );
+            delegate.onOpen(webSocket, response);
+        }
+
+        @Override
+        public void onMessage(@NotNull WebSocket webSocket, @NotNull String text) {
+            connection.bind(webSocket);
+            delegate.onMessage(webSocket, text);
+        }
+
+        @Override
+        public void onMessage(@NotNull WebSocket webSocket, @NotNull ByteString bytes) {
+            connection.bind(webSocket);
+            delegate.onMessage(webSocket, bytes);
+        }
+
+        @Override
+        public void onClosing(@NotNull WebSocket webSocket, int code, @NotNull String reason) {
+            connection.bind(webSocket);
+            delegate.onClosing(webSocket, code, reason);
+        }
+
+        @Override
+        public void onClosed(@NotNull WebSocket webSocket, int code, @NotNull String reason) {
+            connection.bind(webSocket);
+            release();
+            delegate.onClosed(webSocket, code, reason);
+        }
+
+        @Override
+        public void onFailure(@NotNull WebSocket webSocket, @NotNull Throwable t, Response response) {
+            connection.bind(webSocket);
+            release();
+            if (!connection.cancelled) {
+                ProxyHealthRegistry.getInstance().recordFailure(connection.lane.proxy);
+            }
+            delegate.onFailure(webSocket, t, response);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package cn.com.vortexa.aro_network.websocket;
+
+import cn.com.vortexa.aro_network.config.AroConfig;
+import lombok.Getter;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 指数退避 + full jitter 的重连策略
+ * delay = random(0, min(maxDelay, baseDelay * multiplier^(attempt-1)))
+ *
+ * @author helei
+ * @since 2025-10-06
+ */
+@Getter
+public final class ReconnectPolicy {
+    public static final long DEFAULT_MAX_DELAY_MINUTES = 30;
+    public static final double DEFAULT_MULTIPLIER = 2.0;
+    public static final String MAX_DELAY_MINUTES_KEY = "aro.reconnect.max-delay-minutes";
+    public static final String MULTIPLIER_KEY = "aro.reconnect.multiplier";
+
+    private final long baseDelayMillis;
+    private final long maxDelayMillis;
+    private final double multiplier;
+
+    public ReconnectPolicy(long baseDelayMillis, long maxDelayMillis, double multiplier) {
+        if (baseDelayMillis < 0 || maxDelayMillis < 0 || multiplier < 1) {
+            throw new IllegalArgumentException("illegal reconnect policy, base[%s] max[%s] multiplier[%s]".formatted(
+                    baseDelayMillis, maxDelayMillis, multiplier
+            ));
+        }
+        this.baseDelayMillis = baseDelayMillis;
+        this.maxDelayMillis = Math.max(baseDelayMillis, maxDelayMillis);
+        this.multiplier = multiplier;
+    }
+
+    /**
+     * 以分钟为单位的基础延迟，最大延迟和倍数取配置 aro.reconnect.*
+     *
+     * @param baseDelayMinutes baseDelayMinutes
+     * @return ReconnectPolicy
+     */
+    public static ReconnectPolicy ofMinutes(int baseDelayMinutes) {
+        return new ReconnectPolicy(
+                TimeUnit.MINUTES.toMillis(baseDelayMinutes),
+                TimeUnit.MINUTES.toMillis(AroConfig.getLong(MAX_DELAY_MINUTES_KEY, DEFAULT_MAX_DELAY_MINUTES)),
+                AroConfig.getDouble(MULTIPLIER_KEY, DEFAULT_MULTIPLIER)
+        );
+    }
+
+    /**
+     * 第attempt次重连前的等待时间
+     *
+     * @param attempt 从1开始
+     * @return delay millis
+     */
+    public long nextDelayMillis(int attempt) {
+        return ThreadLocalRandom.current().nextLong(capMillis(attempt) + 1);
+    }
+
+    /**
+     * 第attempt次重连的退避上限（未加抖动）
+     *
+     * @param attempt 从1开始
+     * @return millis
+     */
+    public long capMillis(int attempt) {
+        double cap = baseDelayMillis * Math.pow(multiplier, Math.max(0, attempt - 1));
+        return cap >= maxDelayMillis ? maxDelayMillis : (long) cap;
+    }
+}
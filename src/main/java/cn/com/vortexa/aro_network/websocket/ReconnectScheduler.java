@@ -0,0 +1,126 @@
+package cn.com.vortexa.aro_network.websocket;
+
+import cn.com.vortexa.aro_network.config.AroConfig;
+import cn.com.vortexa.aro_network.exec.ExecutionLanes;
+import cn.com.vortexa.aro_network.exec.ScheduledLane;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * 共享的重连调度器，等待期间不占用线程，并用全局令牌桶限制每秒重连数
+ *
+ * @author helei
+ * @since 2025-10-06
+ */
+@Slf4j
+public class ReconnectScheduler {
+    public static final double DEFAULT_RECONNECTS_PER_SECOND = 20;
+    public static final int DEFAULT_RECONNECT_BURST = 20;
+    public static final String RECONNECTS_PER_SECOND_KEY = "aro.reconnect.rate-per-second";
+    public static final String RECONNECT_BURST_KEY = "aro.reconnect.burst";
+
+    private static final ReconnectScheduler INSTANCE = new ReconnectScheduler(
+            ExecutionLanes.RECONNECT,
+            AroConfig.getDouble(RECONNECTS_PER_SECOND_KEY, DEFAULT_RECONNECTS_PER_SECOND),
+            AroConfig.getInt(RECONNECT_BURST_KEY, DEFAULT_RECONNECT_BURST)
+    );
+
+    private final ScheduledLane lane;
+    private final TokenBucket tokenBucket;
+
+    public ReconnectScheduler(ScheduledLane lane, double reconnectsPerSecond, int burst) {
+        this.lane = lane;
+        this.tokenBucket = new TokenBucket(reconnectsPerSecond, burst);
+    }
+
+    public static ReconnectScheduler getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * 延迟执行重连，到期后拿不到令牌则顺延
+     * 通道已停止或已满时回调 onRejected（可能在调用线程上立即回调），调用方需要据此结束会话，不能停留在等待重连的状态
+     *
+     * @param reconnect   reconnect
+     * @param delayMillis delayMillis
+     * @param onRejected  重连无法调度时的回调
+     * @return 可取消的句柄
+     */
+    public Handle schedule(Runnable reconnect, long delayMillis, Consumer<RejectedExecutionException> onRejected) {
+        Handle handle = new Handle(reconnect, onRejected);
+        handle.submit(delayMillis);
+        return handle;
+    }
+
+    public int pendingCount() {
+        return lane.queueDepth();
+    }
+
+    /**
+     * 丢弃所有等待中的重连，不再接受新的重连
+     *
+     * @return 被丢弃的重连数
+     */
+    public int shutdown() {
+        return lane.shutdownNow().size();
+    }
+
+    public final class Handle {
+        private final Runnable reconnect;
+        private final Consumer<RejectedExecutionException> onRejected;
+        private volatile ScheduledFuture<?> future;
+        private volatile boolean cancelled = false;
+
+        private Handle(Runnable reconnect, Consumer<RejectedExecutionException> onRejected) {
+            this.reconnect = reconnect;
+            this.onRejected = onRejected;
+        }
+
+        private void submit(long delayMillis) {
+            RejectedExecutionException rejection;
+            if (lane.isShutdown()) {
+                // 停机中，不再重连
+                rejection = new RejectedExecutionException("reconnect scheduler is shut down");
+            } else {
+                try {
+                    future = lane.schedule(this::fire, delayMillis, TimeUnit.MILLISECONDS);
+                    return;
+                } catch (RejectedExecutionException e) {
+                    rejection = e;
+                }
+            }
+            cancelled = true;
+            log.warn("reconnect rejected, {}", rejection.getMessage());
+            try {
+                onRejected.accept(rejection);
+            } catch (Exception e) {
+                log.error("reconnect rejected callback error", e);
+            }
+        }
+
+        private void fire() {
+            if (cancelled) return;
+            if (!tokenBucket.tryAcquire()) {
+                submit(tokenBucket.millisUntilNextPermit());
+                return;
+            }
+            try {
+                reconnect.run();
+            } catch (Exception e) {
+                log.error("reconnect error", e);
+            }
+        }
+
+        public void cancel() {
+            cancelled = true;
+            ScheduledFuture<?> current = future;
+            if (current != null) {
+                current.cancel(false);
+            }
+        }
+    }
+}
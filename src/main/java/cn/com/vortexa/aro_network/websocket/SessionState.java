@@ -0,0 +1,34 @@
+package cn.com.vortexa.aro_network.websocket;
+
+/**
+ * 节点会话状态
+ *
+ * @author helei
+ * @since 2025-10-07
+ */
+public enum SessionState {
+    /**
+     * 排队握手或握手中
+     */
+    CONNECTING,
+    /**
+     * websocket已打开
+     */
+    OPEN,
+    /**
+     * socket.io 已连接
+     */
+    CONNECTED,
+    /**
+     * 已鉴权，正在发送心跳
+     */
+    AUTHED,
+    /**
+     * 等待重连
+     */
+    RECONNECTING,
+    /**
+     * 生命周期结束，不再重连
+     */
+    CLOSED
+}
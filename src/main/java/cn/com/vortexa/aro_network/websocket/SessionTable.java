@@ -0,0 +1,164 @@
+package cn.com.vortexa.aro_network.websocket;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 所有会话共享的状态和计数表，按槽位存放在基本类型数组中，避免每个会话持有多个原子对象
+ * 数组按块分配，扩容时不复制已有数据，读写通过 VarHandle 保证可见性和原子性
+ *
+ * @author helei
+ * @since 2025-10-17
+ */
+public final class SessionTable {
+    // int 字段
+    public static final int STATE = 0;
+    public static final int PING_COUNT = 1;
+    public static final int RECONNECT_COUNT = 2;
+    public static final int BACKOFF_ATTEMPT = 3;
+    public static final int RESTORED_RECONNECTS = 4;
+    public static final int SKIPPED_SENDS = 5;
+    public static final int SEND_REJECTS = 6;
+    private static final int INT_FIELDS = 7;
+
+    // long 字段
+    public static final int OPEN_TIME = 0;
+    public static final int BYTES_IN = 1;
+    public static final int BYTES_OUT = 2;
+    public static final int CONNECT_SENT_NANOS = 3;
+    public static final int LAST_SERVER_PING_NANOS = 4;
+    public static final int LAST_ENGINE_PING_NANOS = 5;
+    public static final int LAST_AUTH_LATENCY_MILLIS = 6;
+    public static final int LAST_AUTH_TIME = 7;
+    private static final int LONG_FIELDS = 8;
+
+    private static final int CHUNK_BITS = 10;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    private static final int MAX_CHUNKS = 4096;
+
+    private static final VarHandle INTS = MethodHandles.arrayElementVarHandle(int[].class);
+    private static final VarHandle LONGS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private static final SessionTable INSTANCE = new SessionTable();
+
+    private final AtomicReferenceArray<Chunk> chunks = new AtomicReferenceArray<>(MAX_CHUNKS);
+    private int[] freeSlots = new int[64];
+    private int freeCount = 0;
+    private int nextSlot = 0;
+    private int used = 0;
+
+    public static SessionTable getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * 分配槽位并初始化字段
+     *
+     * @return slot
+     */
+    public synchronized int allocate() {
+        int slot;
+        if (freeCount > 0) {
+            slot = freeSlots[--freeCount];
+        } else {
+            slot = nextSlot++;
+            int chunkIdx = slot >>> CHUNK_BITS;
+            if (chunkIdx >= MAX_CHUNKS) {
+                nextSlot--;
+                throw new IllegalStateException("session table is full");
+            }
+            if (chunks.get(chunkIdx) == null) {
+                chunks.set(chunkIdx, new Chunk());
+            }
+        }
+        used++;
+
+        Chunk chunk = chunks.get(slot >>> CHUNK_BITS);
+        int intBase = (slot & CHUNK_MASK) * INT_FIELDS;
+        int longBase = (slot & CHUNK_MASK) * LONG_FIELDS;
+        for (int i = 0; i < INT_FIELDS; i++) {
+            INTS.setVolatile(chunk.ints, intBase + i, 0);
+        }
+        for (int i = 0; i < LONG_FIELDS; i++) {
+            LONGS.setVolatile(chunk.longs, longBase + i, 0L);
+        }
+        INTS.setVolatile(chunk.ints, intBase + STATE, SessionState.CONNECTING.ordinal());
+        LONGS.setVolatile(chunk.longs, longBase + LAST_AUTH_LATENCY_MILLIS, -1L);
+        return slot;
+    }
+
+    /**
+     * 归还槽位，调用后不能再访问
+     *
+     * @param slot slot
+     */
+    public synchronized void release(int slot) {
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+        }
+        freeSlots[freeCount++] = slot;
+        used--;
+    }
+
+    public synchronized int used() {
+        return used;
+    }
+
+    public synchronized int capacity() {
+        return ((nextSlot + CHUNK_MASK) >>> CHUNK_BITS) * CHUNK_SIZE;
+    }
+
+    public int getInt(int slot, int field) {
+        return (int) INTS.getVolatile(chunk(slot).ints, intIndex(slot, field));
+    }
+
+    public void setInt(int slot, int field, int value) {
+        INTS.setVolatile(chunk(slot).ints, intIndex(slot, field), value);
+    }
+
+    /**
+     * @return 相加后的值
+     */
+    public int addInt(int slot, int field, int delta) {
+        return (int) INTS.getAndAdd(chunk(slot).ints, intIndex(slot, field), delta) + delta;
+    }
+
+    public boolean compareAndSetInt(int slot, int field, int expect, int update) {
+        return INTS.compareAndSet(chunk(slot).ints, intIndex(slot, field), expect, update);
+    }
+
+    public long getLong(int slot, int field) {
+        return (long) LONGS.getVolatile(chunk(slot).longs, longIndex(slot, field));
+    }
+
+    public void setLong(int slot, int field, long value) {
+        LONGS.setVolatile(chunk(slot).longs, longIndex(slot, field), value);
+    }
+
+    /**
+     * @return 相加后的值
+     */
+    public long addLong(int slot, int field, long delta) {
+        return (long) LONGS.getAndAdd(chunk(slot).longs, longIndex(slot, field), delta) + delta;
+    }
+
+    private Chunk chunk(int slot) {
+        return chunks.get(slot >>> CHUNK_BITS);
+    }
+
+    private static int intIndex(int slot, int field) {
+        return (slot & CHUNK_MASK) * INT_FIELDS + field;
+    }
+
+    private static int longIndex(int slot, int field) {
+        return (slot & CHUNK_MASK) * LONG_FIELDS + field;
+    }
+
+    private static final class Chunk {
+        private final int[] ints = new int[CHUNK_SIZE * INT_FIELDS];
+        private final long[] longs = new long[CHUNK_SIZE * LONG_FIELDS];
+    }
+}
@@ -0,0 +1,58 @@
+package cn.com.vortexa.aro_network.websocket;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 进程内所有会话的累计计数，只增不减，会话移除后仍然保留，供 Micrometer 的 FunctionCounter 读取
+ * 各会话自己的计数仍在 SessionTable 中，从检查点恢复的计数不计入这里
+ *
+ * @author helei
+ * @since 2025-10-18
+ */
+public final class SessionTotals {
+    private static final SessionTotals INSTANCE = new SessionTotals();
+
+    private final LongAdder pings = new LongAdder();
+    private final LongAdder reconnects = new LongAdder();
+    private final LongAdder bytesIn = new LongAdder();
+    private final LongAdder bytesOut = new LongAdder();
+
+    private SessionTotals() {
+    }
+
+    public static SessionTotals getInstance() {
+        return INSTANCE;
+    }
+
+    void ping() {
+        pings.increment();
+    }
+
+    void reconnect() {
+        reconnects.increment();
+    }
+
+    void bytesIn(long bytes) {
+        bytesIn.add(bytes);
+    }
+
+    void bytesOut(long bytes) {
+        bytesOut.add(bytes);
+    }
+
+    public double getPings() {
+        return pings.sum();
+    }
+
+    public double getReconnects() {
+        return reconnects.sum();
+    }
+
+    public double getBytesIn() {
+        return bytesIn.sum();
+    }
+
+    public double getBytesOut() {
+        return bytesOut.sum();
+    }
+}
@@ -1,20 +1,16 @@
 package cn.com.vortexa.aro_network.websocket;
 
+import cn.com.vortexa.aro_network.event.SessionEventBus;
 import cn.com.vortexa.common.interfaces.SystemProxy;
-import cn.com.vortexa.common.util.http.RestApiClientFactory;
-import cn.hutool.core.lang.Pair;
-import cn.hutool.core.util.StrUtil;
-import com.alibaba.fastjson.JSONArray;
-import lombok.Builder;
-import lombok.Data;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import okhttp3.*;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.List;
-import java.util.concurrent.locks.Condition;
-import java.util.concurrent.locks.ReentrantLock;
+import java.lang.ref.Cleaner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * @author helei
@@ -28,81 +24,327 @@ public abstract class SocketIOClient extends WebSocketListener {
     public static final int EVENT_CODE = 42;
     public static final int PING_CODE = 2;
     public static final int PONG_CODE = 3;
+    /**
+     * 发送队列超过该值视为链路过慢，关闭连接，避免在 OkHttp 的16MiB发送缓冲中堆积
+     */
+    public static final long MAX_SEND_QUEUE_BYTES = 256 * 1024;
+    private static final SessionState[] STATES = SessionState.values();
+    private static final Cleaner SLOT_CLEANER = Cleaner.create();
+    protected static final SessionTable TABLE = SessionTable.getInstance();
 
     private final String wsUrl;
-    private final OkHttpClient client;
-    private final ReentrantLock lock = new ReentrantLock();
-    private final Condition condition = lock.newCondition();
     @Getter
-    private WebSocket webSocket;
+    private volatile SystemProxy proxy;
+    private volatile ProxyConnectionManager.Connection connection;
     @Getter
-    private volatile boolean running = false; // 阻塞状态
+    private volatile boolean running = false; // 连接状态
+    private volatile CompletableFuture<Void> terminationFuture;
+    /**
+     * 状态和计数在 SessionTable 中的槽位，对象被回收后归还
+     */
+    protected final int slot;
+    /**
+     * 已计入 SessionEventBus 的状态计数，回收时需要移除
+     */
+    private final AtomicBoolean counted = new AtomicBoolean(false);
 
     public SocketIOClient(
             String wsUrl,
             SystemProxy proxy
     ) {
         this.wsUrl = wsUrl;
-        this.client = RestApiClientFactory.getClient(proxy).getOkHttpClient();
+        this.proxy = proxy;
+        int allocated = TABLE.allocate();
+        this.slot = allocated;
+        AtomicBoolean countedFlag = this.counted;
+        SLOT_CLEANER.register(this, () -> releaseSlot(allocated, countedFlag));
     }
 
-    public void start() throws InterruptedException {
-        lock.lock();
-        try {
-            if (webSocket != null) {
-                webSocket.close(CLOSE_CODE, "restart close");
-            }
+    /**
+     * 会话已计入 SessionEventBus 的状态计数
+     */
+    protected void markCounted() {
+        counted.set(true);
+    }
+
+    /**
+     * 对象被回收后归还槽位，没有走到CLOSED的会话同时从状态计数中移除
+     */
+    private static void releaseSlot(int slot, AtomicBoolean counted) {
+        if (counted.get()) {
+            SessionEventBus.getInstance().sessionReleased(STATES[TABLE.getInt(slot, SessionTable.STATE)]);
+        }
+        TABLE.release(slot);
+    }
+
+    /**
+     * 更换代理，下次 connect 时生效
+     *
+     * @param proxy proxy
+     */
+    protected void setProxy(SystemProxy proxy) {
+        this.proxy = proxy;
+    }
+
+    public WebSocket getWebSocket() {
+        ProxyConnectionManager.Connection current = connection;
+        return current == null ? null : current.getWebSocket();
+    }
+
+    /**
+     * 异步启动，返回的future在连接最终关闭（不再重连）时完成
+     *
+     * @return CompletableFuture<Void>
+     */
+    public synchronized CompletableFuture<Void> startAsync() {
+        CompletableFuture<Void> future = lifecycle();
+        connect();
+        return future;
+    }
 
-            Request request = new Request.Builder().url(wsUrl).build();
-            webSocket = client.newWebSocket(request, this);
+    /**
+     * 开始新的生命周期（如果上一个已结束），不建立连接
+     *
+     * @return 生命周期结束的future
+     */
+    protected synchronized CompletableFuture<Void> lifecycle() {
+        if (terminationFuture == null || terminationFuture.isDone()) {
+            terminationFuture = new CompletableFuture<>();
+            transition(SessionState.CONNECTING, true);
+        }
+        return terminationFuture;
+    }
 
-            running = true;
-            while (running) {
-                condition.await(); // 阻塞
+    /**
+     * 建立（或重建）websocket连接，不阻塞调用线程
+     */
+    protected synchronized void connect() {
+        if (connection != null) {
+            connection.close(CLOSE_CODE, "restart close");
+        }
+
+        Request request = new Request.Builder().url(wsUrl).build();
+        ProxyConnectionManager.Connection opening = ProxyConnectionManager.getInstance().newConnection(proxy, request, this);
+        connection = opening;
+        running = true;
+        transition(SessionState.CONNECTING, true);
+        opening.open(e -> {
+            // 重连后旧连接的拒绝不再处理
+            if (opening == connection) {
+                onOpenRejected(e);
             }
-        } finally {
-            lock.unlock();
+        });
+    }
+
+    /**
+     * 握手没有进行（停止接受连接、通道已满或排队中被丢弃），不会再有 WebSocketListener 的回调，默认结束生命周期
+     *
+     * @param e 拒绝原因
+     */
+    protected void onOpenRejected(RejectedExecutionException e) {
+        log.warn("ws open rejected, {}", e.getMessage());
+        close();
+        terminate(e);
+    }
+
+    /**
+     * 通过当前连接发送一帧
+     *
+     * @param frame frame
+     * @return 是否进入发送队列
+     */
+    protected boolean send(String frame) {
+        WebSocket ws = getWebSocket();
+        if (ws == null) return false;
+        return write(ws, frame);
+    }
+
+    /**
+     * 发送队列为空时才发送，用于可以丢弃的周期性帧（如心跳），队列中还有未发出的数据时跳过本次
+     *
+     * @param frame frame
+     * @return 是否进入发送队列
+     */
+    protected boolean sendIfIdle(String frame) {
+        WebSocket ws = getWebSocket();
+        if (ws == null) return false;
+        if (ws.queueSize() > 0) {
+            TABLE.addInt(slot, SessionTable.SKIPPED_SENDS, 1);
+            return false;
         }
+        return write(ws, frame);
     }
 
+    /**
+     * 当前连接发送队列中的字节数
+     *
+     * @return bytes
+     */
+    public long getSendQueueBytes() {
+        WebSocket ws = getWebSocket();
+        return ws == null ? 0 : ws.queueSize();
+    }
 
-    public void close() {
-        lock.lock();
-        try {
-            if (!running) return;
-            running = false;
-            if (webSocket != null) {
-                webSocket.close(CLOSE_CODE, "client close");
+    public int getSkippedSends() {
+        return TABLE.getInt(slot, SessionTable.SKIPPED_SENDS);
+    }
+
+    public int getSendRejects() {
+        return TABLE.getInt(slot, SessionTable.SEND_REJECTS);
+    }
+
+    private boolean write(WebSocket ws, String frame) {
+        long queued = ws.queueSize();
+        if (queued > MAX_SEND_QUEUE_BYTES) {
+            rejectSend(ws, "send queue over limit, queued[%s]bytes".formatted(queued));
+            return false;
+        }
+        if (!ws.send(frame)) {
+            rejectSend(ws, "send rejected, queued[%s]bytes".formatted(queued));
+            return false;
+        }
+        long bytes = SocketIOFrameCodec.utf8Length(frame);
+        TABLE.addLong(slot, SessionTable.BYTES_OUT, bytes);
+        SessionTotals.getInstance().bytesOut(bytes);
+        return true;
+    }
+
+    private void rejectSend(WebSocket ws, String reason) {
+        TABLE.addInt(slot, SessionTable.SEND_REJECTS, 1);
+        // 旧连接上的发送失败不影响当前连接
+        if (ws == getWebSocket()) {
+            onSendRejected(reason);
+        }
+    }
+
+    /**
+     * 发送被拒绝（连接已关闭或发送队列过大），默认关闭连接
+     *
+     * @param reason reason
+     */
+    protected void onSendRejected(String reason) {
+        log.warn("{}, close connection", reason);
+        close();
+    }
+
+    public synchronized void close() {
+        if (!running) return;
+        running = false;
+        if (connection != null) {
+            connection.close(CLOSE_CODE, "client close");
+        }
+    }
+
+    /**
+     * 关闭连接并结束生命周期
+     */
+    public void shutdown() {
+        close();
+        terminate(null);
+    }
+
+    /**
+     * 结束生命周期，完成startAsync返回的future
+     *
+     * @param cause 为空表示正常结束
+     */
+    protected void terminate(Throwable cause) {
+        transition(SessionState.CLOSED, true);
+        CompletableFuture<Void> future = terminationFuture;
+        if (future == null) return;
+        if (cause == null) {
+            future.complete(null);
+        } else {
+            future.completeExceptionally(cause);
+        }
+    }
+
+    public boolean isTerminated() {
+        CompletableFuture<Void> future = terminationFuture;
+        return future != null && future.isDone();
+    }
+
+    protected void setState(SessionState state) {
+        transition(state, false);
+    }
+
+    /**
+     * 切换状态，状态变化时回调 onStateChanged
+     *
+     * @param to    新状态
+     * @param force 为false时不覆盖CLOSED
+     */
+    private void transition(SessionState to, boolean force) {
+        while (true) {
+            int current = TABLE.getInt(slot, SessionTable.STATE);
+            SessionState from = STATES[current];
+            if (from == to || (!force && from == SessionState.CLOSED)) return;
+            if (TABLE.compareAndSetInt(slot, SessionTable.STATE, current, to.ordinal())) {
+                onStateChanged(from, to);
+                return;
             }
-            condition.signalAll(); // 解除 start 的阻塞
-        } finally {
-            lock.unlock();
         }
     }
 
+    /**
+     * 状态变化回调，每次变化恰好回调一次，不能阻塞
+     *
+     * @param from 原状态
+     * @param to   新状态
+     */
+    protected void onStateChanged(SessionState from, SessionState to) {
+    }
+
+    public SessionState getState() {
+        return STATES[TABLE.getInt(slot, SessionTable.STATE)];
+    }
+
+    public long getOpenTime() {
+        return TABLE.getLong(slot, SessionTable.OPEN_TIME);
+    }
+
+    public long getBytesIn() {
+        return TABLE.getLong(slot, SessionTable.BYTES_IN);
+    }
+
+    public long getBytesOut() {
+        return TABLE.getLong(slot, SessionTable.BYTES_OUT);
+    }
+
     @Override
-    public void onOpen(@NotNull WebSocket webSocket, @NotNull Response response) {}
+    public void onOpen(@NotNull WebSocket webSocket, @NotNull Response response) {
+        TABLE.setLong(slot, SessionTable.OPEN_TIME, System.currentTimeMillis());
+        setState(SessionState.OPEN);
+    }
 
     @Override
     public void onMessage(@NotNull WebSocket webSocket, @NotNull String text) {
+        long bytes = SocketIOFrameCodec.utf8Length(text);
+        TABLE.addLong(slot, SessionTable.BYTES_IN, bytes);
+        SessionTotals.getInstance().bytesIn(bytes);
         try {
-            Pair<Integer, String> codeAndContent = getMessageCode(text);
-            int code = codeAndContent.getKey();
-            String content = codeAndContent.getValue();
+            int code = SocketIOFrameCodec.packetType(text);
+            int offset = SocketIOFrameCodec.payloadOffset(text);
             MessageResponse response = switch (code) {
-                case OPEN_CODE -> MessageResponse.connectResponse(handlerOpen(content));
-                case CONNECT_CODE -> handlerConnect(content);
+                case OPEN_CODE -> handlerOpen(text.substring(offset));
+                case CONNECT_CODE -> handlerConnect(text.substring(offset));
                 case EVENT_CODE -> {
-                    JSONArray arr = JSONArray.parseArray(content);
-                    yield handlerEvent(arr.getString(0), arr.get(1));
+                    int nameEnd = SocketIOFrameCodec.eventNameEnd(text, offset);
+                    if (nameEnd < 0) {
+                        throw new IllegalArgumentException("illegal event frame");
+                    }
+                    yield handlerEvent(
+                            SocketIOFrameCodec.eventName(text, offset, nameEnd),
+                            SocketIOFrameCodec.eventData(text, nameEnd)
+                    );
                 }
-                case PING_CODE -> handlerPing(content);
-                case PONG_CODE -> handlerPong(content);
+                case PING_CODE -> handlerPing(text.substring(offset));
+                case PONG_CODE -> handlerPong(text.substring(offset));
                 default -> throw new IllegalStateException("Unexpected value: " + code);
             };
 
             if (response.isResponse()) {
-                webSocket.send(response.toSendMsg());
+                write(webSocket, response.toSendMsg());
             }
         } catch (Exception e) {
             log.error("handle message[%s] error".formatted(text), e);
@@ -120,11 +362,24 @@ public abstract class SocketIOClient extends WebSocketListener {
         log.error("WebSocket failure,  response: {}", response, t);
     }
 
-    protected abstract @NotNull Object handlerOpen(String content);
+    /**
+     * 处理open帧
+     *
+     * @param content content
+     * @return 一般为连接帧 MessageResponse.connectResponse(...)
+     */
+    protected abstract @NotNull MessageResponse handlerOpen(String content);
 
     protected abstract @NotNull MessageResponse handlerConnect(String content);
 
-    protected abstract @NotNull MessageResponse handlerEvent(String event, Object data);
+    /**
+     * 处理事件帧
+     *
+     * @param event event name
+     * @param data  事件数据的原始json，没有数据时为null
+     * @return MessageResponse
+     */
+    protected abstract @NotNull MessageResponse handlerEvent(String event, String data);
 
     protected @NotNull MessageResponse handlerPing(String content) {
         return MessageResponse.pongResponse(null);
@@ -135,52 +390,49 @@ public abstract class SocketIOClient extends WebSocketListener {
     }
 
 
-    @Data
-    @Builder
     public static final class MessageResponse {
-        private boolean response;
-        private Object data;
-        private int code;
+        private static final MessageResponse NO_RESPONSE = new MessageResponse(null);
+        private static final MessageResponse PONG_RESPONSE = new MessageResponse(SocketIOFrameCodec.PONG_FRAME);
+
+        private final String frame;
+
+        private MessageResponse(String frame) {
+            this.frame = frame;
+        }
+
+        public static MessageResponse of(String frame) {
+            return new MessageResponse(frame);
+        }
 
         public static MessageResponse connectResponse(Object data) {
-            return MessageResponse.builder().response(true).code(CONNECT_CODE).data(data).build();
+            return new MessageResponse(SocketIOFrameCodec.encodeConnect(data == null ? null : data.toString()));
         }
 
         public static MessageResponse pongResponse(Object data) {
-            return MessageResponse.builder().response(true).code(PONG_CODE).data(data).build();
+            return data == null ? PONG_RESPONSE : new MessageResponse(SocketIOFrameCodec.PONG_FRAME + data);
         }
 
         public static MessageResponse noResponse() {
-            return MessageResponse.builder().response(false).build();
+            return NO_RESPONSE;
         }
 
-        public static MessageResponse eventResponse(String event, Object data) {
-            return MessageResponse.builder().response(true).code(EVENT_CODE)
-                    .data(JSONArray.toJSONString(List.of(event, data))).build();
+        /**
+         * 事件响应
+         *
+         * @param event   event
+         * @param rawData 已经序列化好的json
+         * @return MessageResponse
+         */
+        public static MessageResponse eventResponse(String event, String rawData) {
+            return new MessageResponse(SocketIOFrameCodec.encodeEvent(event, rawData));
         }
 
-        public String toSendMsg() {
-            if (data == null) {
-                return "" + code;
-            } else {
-                return "" + code + data;
-            }
+        public boolean isResponse() {
+            return frame != null;
         }
-    }
 
-    private Pair<Integer, String> getMessageCode(String text) {
-        if (StrUtil.isEmpty(text)) {
-            throw new IllegalArgumentException("text is empty");
-        }
-        char[] charArray = text.toCharArray();
-        StringBuilder numberSB = new StringBuilder();
-        for (char c : charArray) {
-            if (Character.isDigit(c)) {
-                numberSB.append(c);
-            } else {
-                break;
-            }
+        public String toSendMsg() {
+            return frame;
         }
-        return Pair.of(Integer.parseInt(numberSB.toString()), text.substring(numberSB.length()));
     }
 }
@@ -0,0 +1,177 @@
+package cn.com.vortexa.aro_network.websocket;
+
+import com.alibaba.fastjson.JSON;
+
+/**
+ * Engine.IO/Socket.IO 文本帧编解码，直接在原字符串上扫描，避免解析整个payload
+ *
+ * @author helei
+ * @since 2025-10-03
+ */
+public final class SocketIOFrameCodec {
+    public static final int NO_TYPE = -1;
+
+    public static final String PING_FRAME = "2";
+    public static final String PONG_FRAME = "3";
+    public static final String CONNECT_FRAME = "40";
+    private static final String EVENT_FRAME_PREFIX = "42[\"";
+
+    private SocketIOFrameCodec() {
+    }
+
+    /**
+     * 读取帧开头的数字类型，如 0、40、42、2、3
+     *
+     * @param text text
+     * @return 类型，没有数字前缀时返回 NO_TYPE
+     */
+    public static int packetType(String text) {
+        int len = text.length();
+        int code = 0;
+        int i = 0;
+        while (i < len) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') break;
+            code = code * 10 + (c - '0');
+            i++;
+        }
+        return i == 0 ? NO_TYPE : code;
+    }
+
+    /**
+     * payload在帧中的起始下标
+     *
+     * @param text text
+     * @return offset
+     */
+    public static int payloadOffset(String text) {
+        int len = text.length();
+        int i = 0;
+        while (i < len) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') break;
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * 找到事件帧 ["event", data] 中事件名的结束引号下标
+     *
+     * @param text   text
+     * @param offset payload offset
+     * @return 结束引号下标，格式不对时返回 -1
+     */
+    public static int eventNameEnd(String text, int offset) {
+        int len = text.length();
+        int i = skipWhitespace(text, offset);
+        if (i >= len || text.charAt(i) != '[') return -1;
+        i = skipWhitespace(text, i + 1);
+        if (i >= len || text.charAt(i) != '"') return -1;
+        for (i = i + 1; i < len; i++) {
+            char c = text.charAt(i);
+            if (c == '\\') {
+                i++;
+            } else if (c == '"') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 读取事件名
+     *
+     * @param text    text
+     * @param offset  payload offset
+     * @param nameEnd eventNameEnd 的返回值
+     * @return event name
+     */
+    public static String eventName(String text, int offset, int nameEnd) {
+        int start = text.indexOf('"', offset) + 1;
+        String name = text.substring(start, nameEnd);
+        // 事件名基本不会带转义，有的话交给 fastjson 处理
+        return name.indexOf('\\') < 0 ? name : JSON.parseObject(
+                text.substring(start - 1, nameEnd + 1), String.class
+        );
+    }
+
+    /**
+     * 读取事件数据的原始json，不做解析
+     *
+     * @param text    text
+     * @param nameEnd eventNameEnd 的返回值
+     * @return 原始json，没有数据时返回null
+     */
+    public static String eventData(String text, int nameEnd) {
+        int i = skipWhitespace(text, nameEnd + 1);
+        if (i >= text.length() || text.charAt(i) != ',') return null;
+        int start = skipWhitespace(text, i + 1);
+        int end = text.lastIndexOf(']');
+        while (end > start && Character.isWhitespace(text.charAt(end - 1))) {
+            end--;
+        }
+        return end > start ? text.substring(start, end) : null;
+    }
+
+    /**
+     * 编码事件帧 42["event",data]
+     *
+     * @param event   事件名，不能包含需要转义的字符
+     * @param rawData 已经序列化好的json，可以为空
+     * @return frame
+     */
+    public static String encodeEvent(String event, String rawData) {
+        StringBuilder sb = new StringBuilder(
+                EVENT_FRAME_PREFIX.length() + event.length() + (rawData == null ? 2 : rawData.length() + 3)
+        );
+        sb.append(EVENT_FRAME_PREFIX).append(event).append('"');
+        if (rawData != null) {
+            sb.append(',').append(rawData);
+        }
+        return sb.append(']').toString();
+    }
+
+    /**
+     * 编码连接帧 40{...}
+     *
+     * @param rawData 已经序列化好的json，可以为空
+     * @return frame
+     */
+    public static String encodeConnect(String rawData) {
+        return rawData == null ? CONNECT_FRAME : CONNECT_FRAME + rawData;
+    }
+
+    /**
+     * 文本帧按UTF-8编码后的字节数，与 OkHttp 实际发送和接收的字节一致
+     *
+     * @param text text
+     * @return bytes
+     */
+    public static long utf8Length(String text) {
+        int len = text.length();
+        long bytes = len;
+        for (int i = 0; i < len; i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) continue;
+            if (c < 0x800) {
+                bytes += 1;
+            } else if (Character.isHighSurrogate(c) && i + 1 < len && Character.isLowSurrogate(text.charAt(i + 1))) {
+                // 代理对两个char共4字节
+                bytes += 2;
+                i++;
+            } else {
+                bytes += 2;
+            }
+        }
+        return bytes;
+    }
+
+    private static int skipWhitespace(String text, int i) {
+        int len = text.length();
+        while (i < len && Character.isWhitespace(text.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+}
@@ -0,0 +1,53 @@
+package cn.com.vortexa.aro_network.websocket;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 令牌桶限流
+ *
+ * @author helei
+ * @since 2025-10-06
+ */
+public final class TokenBucket {
+    private final double permitsPerNano;
+    private final double capacity;
+    private double tokens;
+    private long lastRefillNanos;
+
+    public TokenBucket(double permitsPerSecond, int burst) {
+        if (permitsPerSecond <= 0 || burst <= 0) {
+            throw new IllegalArgumentException("permitsPerSecond and burst must be positive");
+        }
+        this.permitsPerNano = permitsPerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.capacity = burst;
+        this.tokens = burst;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    public synchronized boolean tryAcquire() {
+        refill();
+        if (tokens >= 1) {
+            tokens -= 1;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 距离下一个令牌可用的时间
+     *
+     * @return millis，至少为1
+     */
+    public synchronized long millisUntilNextPermit() {
+        refill();
+        if (tokens >= 1) return 1;
+        long nanos = (long) Math.ceil((1 - tokens) / permitsPerNano);
+        return Math.max(1, TimeUnit.NANOSECONDS.toMillis(nanos));
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - lastRefillNanos) * permitsPerNano);
+        lastRefillNanos = now;
+    }
+}
@@ -0,0 +1,86 @@
+package cn.com.vortexa.aro_network.cache;
+
+import cn.com.vortexa.aro_network.service.impl.AroNetworkApiImpl;
+import cn.com.vortexa.bot_template.bot.dto.FullAccountContext;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author helei
+ * @since 2025-10-18
+ */
+class NodeDescriptorCacheTest {
+    private final NodeDescriptorCache cache = NodeDescriptorCache.getInstance();
+
+    @Test
+    void nodeIdsAreSortedByNumericSuffix() {
+        Map<String, Object> params = params();
+        params.put("node_id_10", "n10");
+        params.put("node_id_2", "n2");
+        params.put("node_id_1", "n1");
+        params.put("node_id_x", "nx");
+
+        assertEquals(List.of("n1", "n2", "n10", "nx"), cache.get(account(params)).getNodeIds());
+    }
+
+    @Test
+    void versionOnlyChangesWithNodeContent() {
+        Map<String, Object> params = params();
+        params.put("node_id_1", "n1");
+        FullAccountContext context = account(params);
+
+        NodeDescriptor first = cache.get(context);
+        assertSame(first, cache.get(context));
+
+        // 与节点无关的参数变化不改变版本
+        params.put("email", "changed@example.com");
+        assertSame(first, cache.refresh(context));
+
+        // 原地修改的节点参数在 refresh 时发现
+        params.put("node_id_2", "n2");
+        assertSame(first, cache.get(context));
+        NodeDescriptor second = cache.refresh(context);
+        assertNotEquals(first.getVersion(), second.getVersion());
+        assertEquals(List.of("n1", "n2"), second.getNodeIds());
+    }
+
+    @Test
+    void replacedParamsMapIsRecompiledByGet() {
+        Map<String, Object> params = params();
+        params.put("node_id_1", "n1");
+        FullAccountContext context = account(params);
+        NodeDescriptor first = cache.get(context);
+
+        Map<String, Object> reloaded = new HashMap<>(params);
+        reloaded.put("node_id_1", "n3");
+        when(context.getParams()).thenReturn(reloaded);
+
+        NodeDescriptor second = cache.get(context);
+        assertEquals(List.of("n3"), second.getNodeIds());
+        assertNotEquals(first.getVersion(), second.getVersion());
+    }
+
+    private static Map<String, Object> params() {
+        Map<String, Object> params = new HashMap<>();
+        params.put(AroNetworkApiImpl.USER_ID_KEY, "user-" + UUID.randomUUID());
+        return params;
+    }
+
+    private static FullAccountContext account(Map<String, Object> params) {
+        FullAccountContext context = mock(FullAccountContext.class);
+        when(context.getParams()).thenReturn(params);
+        when(context.getParam(anyString())).thenAnswer(invocation -> params.get(invocation.<String>getArgument(0)));
+        return context;
+    }
+}
@@ -0,0 +1,71 @@
+package cn.com.vortexa.aro_network.cache;
+
+import cn.com.vortexa.aro_network.service.impl.AroNetworkApiImpl;
+import cn.com.vortexa.bot_template.bot.dto.FullAccountContext;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 账户参数中 node_id_* 的筛选：原来每次启动时 stream 全量过滤，与 NodeDescriptorCache 命中缓存
+ * mvn -Pjmh verify -DskipTests -Djmh.includes=NodeFilterBenchmark
+ *
+ * @author helei
+ * @since 2025-10-18
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NodeFilterBenchmark {
+    @Param({"5", "50"})
+    public int nodes;
+
+    private Map<String, Object> params;
+    private FullAccountContext context;
+
+    @Setup
+    public void setUp() {
+        params = new HashMap<>();
+        params.put(AroNetworkApiImpl.USER_ID_KEY, "bench-user-" + nodes);
+        params.put("email", "bench@example.com");
+        params.put("password", "secret");
+        for (int i = 1; i <= nodes; i++) {
+            params.put(AroNetworkApiImpl.NODE_ID_PATTERN + i, "bench-node-" + nodes + "-" + i);
+        }
+        context = Mockito.mock(FullAccountContext.class);
+        Mockito.when(context.getParams()).thenReturn(params);
+        Mockito.when(context.getParam(Mockito.anyString())).thenAnswer(invocation -> params.get(invocation.<String>getArgument(0)));
+        NodeDescriptorCache.getInstance().get(context);
+    }
+
+    @Benchmark
+    public List<String> legacyStreamFilter() {
+        return context.getParams().entrySet().stream()
+                .filter(e -> e.getKey().startsWith(AroNetworkApiImpl.NODE_ID_PATTERN))
+                .filter(e -> e.getValue() != null)
+                .map(e -> (String) e.getValue())
+                .toList();
+    }
+
+    @Benchmark
+    public List<String> cachedDescriptor() {
+        return NodeDescriptorCache.getInstance().get(context).getNodeIds();
+    }
+}
@@ -0,0 +1,68 @@
+package cn.com.vortexa.aro_network.http;
+
+import cn.com.vortexa.base.constants.HeaderKey;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 请求头构建：每次重新构建（buildHeader + token）与 HeaderTemplateCache 复用模板
+ * 账户的基础请求头用固定的几项模拟 FullAccountContext.buildHeader
+ * mvn -Pjmh verify -DskipTests -Djmh.includes=HeaderBuildBenchmark
+ *
+ * @author helei
+ * @since 2025-10-18
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HeaderBuildBenchmark {
+    private static final String TOKEN = "Bearer eyJhbGciOiJIUzI1NiIsInR5cCI6IkpXVCJ9.bench";
+
+    private final HeaderTemplateCache cache = new HeaderTemplateCache(
+            HeaderTemplateCache.DEFAULT_MAX_SIZE, HeaderTemplateCache.DEFAULT_MAX_AGE_MINUTES, TimeUnit.MINUTES
+    );
+
+    @Benchmark
+    public Map<String, String> buildHeader() {
+        return buildBaseHeader();
+    }
+
+    @Benchmark
+    public Map<String, String> buildAuthHeader() {
+        Map<String, String> headers = buildBaseHeader();
+        headers.put(HeaderKey.AUTHORIZATION, TOKEN);
+        return headers;
+    }
+
+    @Benchmark
+    public Map<String, String> cachedAuthHeader() {
+        return cache.authHeaders(TOKEN, null, this, HeaderBuildBenchmark::buildBaseHeader, HeaderKey.AUTHORIZATION);
+    }
+
+    private static Map<String, String> buildBaseHeader() {
+        Map<String, String> headers = new HashMap<>();
+        headers.put("User-Agent", "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 "
+                + "(KHTML, like Gecko) Chrome/129.0.0.0 Safari/537.36");
+        headers.put("Accept", "application/json, text/plain, */*");
+        headers.put("Accept-Language", "en-US,en;q=0.9");
+        headers.put("sec-ch-ua-platform", "\"Windows\"");
+        headers.put(HeaderKey.REFERER, "https://dashboard.aro.network/");
+        headers.put(HeaderKey.ORIGIN, "https://dashboard.aro.network");
+        headers.put(HeaderKey.CONTENT_TYPE, "application/json");
+        return headers;
+    }
+}
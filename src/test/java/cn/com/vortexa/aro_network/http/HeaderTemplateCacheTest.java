@@ -0,0 +1,54 @@
+package cn.com.vortexa.aro_network.http;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author helei
+ * @since 2025-10-18
+ */
+class HeaderTemplateCacheTest {
+    private final HeaderTemplateCache cache = new HeaderTemplateCache(16, 10, TimeUnit.MINUTES);
+    private final AtomicInteger builds = new AtomicInteger();
+    private final Object owner = new Object();
+
+    @Test
+    void returnsSameReadOnlyTemplateOnHit() {
+        Map<String, String> first = cache.authHeaders("t1", null, owner, base("ua-1"), "Authorization");
+        Map<String, String> second = cache.authHeaders("t1", null, owner, base("ua-1"), "Authorization");
+
+        assertSame(first, second);
+        assertEquals("t1", second.get("Authorization"));
+        assertEquals(1, builds.get());
+        assertThrows(UnsupportedOperationException.class, () -> second.put("X-Extra", "1"));
+    }
+
+    @Test
+    void rebuildsWhenOwnerChangesOrInvalidated() {
+        cache.authHeaders("t2", null, owner, base("ua-1"), "Authorization");
+        Map<String, String> reloaded = cache.authHeaders("t2", null, new Object(), base("ua-2"), "Authorization");
+        assertEquals("ua-2", reloaded.get("User-Agent"));
+
+        cache.invalidate("t2");
+        cache.authHeaders("t2", null, owner, base("ua-3"), "Authorization");
+        assertEquals(3, builds.get());
+    }
+
+    private Supplier<Map<String, String>> base(String userAgent) {
+        return () -> {
+            builds.incrementAndGet();
+            Map<String, String> headers = new HashMap<>();
+            headers.put("User-Agent", userAgent);
+            return headers;
+        };
+    }
+}
@@ -0,0 +1,193 @@
+package cn.com.vortexa.aro_network.mock;
+
+import okhttp3.Response;
+import okhttp3.WebSocket;
+import okhttp3.WebSocketListener;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 本地模拟的 aro network 服务，用于测试和压测
+ * 1.websocket：按 Engine.IO/Socket.IO 协议回复 open、connect 帧，收到连接帧后推送 auth 事件，
+ * 之后周期性推送 ping 事件，并统计客户端 pong 的往返时间
+ * 2.http：/api/edgeNode/node/rewards 返回积分，业务码可通过 setRewardCode 指定
+ *
+ * @author helei
+ * @since 2025-10-18
+ */
+public class MockAroServer implements AutoCloseable {
+    public static final String WS_PATH = "/socket.io/";
+    public static final String API_PATH = "/api";
+
+    private final MockWebServer server = new MockWebServer();
+    private final ScheduledExecutorService pinger = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "mock-aro-pinger");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Map<WebSocket, Long> authed = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Long> pongRttNanos = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger connects = new AtomicInteger();
+    private final AtomicInteger authCount = new AtomicInteger();
+    private final AtomicInteger rewardRequests = new AtomicInteger();
+    private volatile double rewardTotal = 100;
+    private volatile int rewardCode = 200;
+
+    public MockAroServer() {
+        server.setDispatcher(new Dispatcher() {
+            @NotNull
+            @Override
+            public MockResponse dispatch(@NotNull RecordedRequest request) {
+                String path = request.getPath() == null ? "" : request.getPath();
+                if (path.startsWith(WS_PATH)) {
+                    connects.incrementAndGet();
+                    return new MockResponse().withWebSocketUpgrade(new SocketIOHandler());
+                }
+                if (path.startsWith(API_PATH + "/edgeNode/node/rewards")) {
+                    rewardRequests.incrementAndGet();
+                    return json("{\"code\":%s,\"message\":\"mock\",\"data\":{\"total\":%s}}".formatted(
+                            rewardCode, rewardTotal
+                    ));
+                }
+                return new MockResponse().setResponseCode(404);
+            }
+        });
+    }
+
+    public void start() throws IOException {
+        server.start();
+    }
+
+    /**
+     * 开始周期性推送 ping 事件
+     *
+     * @param intervalMillis intervalMillis
+     */
+    public void startPing(long intervalMillis) {
+        pinger.scheduleWithFixedDelay(() -> {
+            for (WebSocket webSocket : authed.keySet()) {
+                authed.put(webSocket, System.nanoTime());
+                webSocket.send("42[\"ping\",\"{\\\"t\\\":1}\"]");
+            }
+        }, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 服务端主动断开所有连接，模拟服务重启引起的重连风暴
+     *
+     * @return 断开的连接数
+     */
+    public int dropAll() {
+        List<WebSocket> sockets = new ArrayList<>(authed.keySet());
+        authed.clear();
+        for (WebSocket webSocket : sockets) {
+            webSocket.close(1001, "server restart");
+        }
+        return sockets.size();
+    }
+
+    public String wsUrl() {
+        return server.url(WS_PATH).toString().replaceFirst("^http", "ws") + "?EIO=4&transport=websocket";
+    }
+
+    public String baseUrl() {
+        return server.url(API_PATH).toString();
+    }
+
+    public int authedCount() {
+        return authed.size();
+    }
+
+    public int getConnects() {
+        return connects.get();
+    }
+
+    public int getAuthCount() {
+        return authCount.get();
+    }
+
+    public int getRewardRequests() {
+        return rewardRequests.get();
+    }
+
+    public void setRewardTotal(double rewardTotal) {
+        this.rewardTotal = rewardTotal;
+    }
+
+    public void setRewardCode(int rewardCode) {
+        this.rewardCode = rewardCode;
+    }
+
+    /**
+     * 取出目前为止的 ping->pong 往返时间
+     *
+     * @return nanos
+     */
+    public List<Long> drainPongRttNanos() {
+        List<Long> result = new ArrayList<>();
+        Long rtt;
+        while ((rtt = pongRttNanos.poll()) != null) {
+            result.add(rtt);
+        }
+        return result;
+    }
+
+    @Override
+    public void close() throws IOException {
+        pinger.shutdownNow();
+        server.shutdown();
+    }
+
+    private static MockResponse json(String body) {
+        return new MockResponse().setHeader("Content-Type", "application/json").setBody(body);
+    }
+
+    private final class SocketIOHandler extends WebSocketListener {
+        @Override
+        public void onOpen(@NotNull WebSocket webSocket, @NotNull Response response) {
+            webSocket.send("0{\"sid\":\"mock\",\"upgrades\":[],\"pingInterval\":25000,\"pingTimeout\":20000}");
+        }
+
+        @Override
+        public void onMessage(@NotNull WebSocket webSocket, @NotNull String text) {
+            if (text.startsWith("40")) {
+                webSocket.send("40{\"sid\":\"mock\"}");
+                webSocket.send("42[\"auth\",{\"success\":true}]");
+                authCount.incrementAndGet();
+                authed.put(webSocket, 0L);
+            } else if (text.startsWith("42[\"pong\"")) {
+                Long sentAt = authed.get(webSocket);
+                if (sentAt != null && sentAt > 0) {
+                    pongRttNanos.add(System.nanoTime() - sentAt);
+                }
+            } else if (text.equals("2")) {
+                webSocket.send("3");
+            }
+        }
+
+        @Override
+        public void onClosing(@NotNull WebSocket webSocket, int code, @NotNull String reason) {
+            authed.remove(webSocket);
+            webSocket.close(1000, null);
+        }
+
+        @Override
+        public void onFailure(@NotNull WebSocket webSocket, @NotNull Throwable t, Response response) {
+            authed.remove(webSocket);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package cn.com.vortexa.aro_network.proxy;
+
+import cn.com.vortexa.common.interfaces.SystemProxy;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * @author helei
+ * @since 2025-10-18
+ */
+class ProxyHealthTest {
+
+    @Test
+    void probingLetsOnlyOneCallerThroughUntilResult() {
+        ProxyHealth health = new ProxyHealth("p", null, 0);
+        health.markBad();
+
+        assertTrue(health.tryUse());
+        assertEquals(ProxyHealth.State.PROBING, health.getState());
+        assertFalse(health.tryUse());
+        assertTrue(health.cooldownRemainingMillis() > 0);
+
+        // 试探失败后重新冷却（冷却时间为0，立即进入下一轮试探）
+        health.recordFailure(3, 0);
+        assertTrue(health.tryUse());
+        assertFalse(health.tryUse());
+
+        health.recordSuccess(10, 0);
+        assertEquals(ProxyHealth.State.HEALTHY, health.getState());
+        assertTrue(health.tryUse());
+        assertTrue(health.tryUse());
+    }
+
+    @Test
+    void selectHealthyStaysInsidePool() {
+        ProxyHealthRegistry registry = new ProxyHealthRegistry(1, 60_000, 60_000);
+        SystemProxy bad = mock(SystemProxy.class);
+        SystemProxy sameAccount = mock(SystemProxy.class);
+        SystemProxy otherAccount = mock(SystemProxy.class);
+        registry.joinPool("user:a", bad);
+        registry.joinPool("user:a", sameAccount);
+        registry.joinPool("user:b", otherAccount);
+        registry.recordFailure(bad);
+
+        assertEquals(sameAccount, registry.selectHealthy("user:a", bad, "node-1"));
+        assertNull(registry.selectHealthy("user:b", otherAccount, "node-1"));
+        assertNull(registry.selectHealthy(null, bad, "node-1"));
+    }
+
+    @Test
+    void selectHealthySpreadsNodesAcrossPool() {
+        ProxyHealthRegistry registry = new ProxyHealthRegistry(1, 60_000, 60_000);
+        SystemProxy bad = mock(SystemProxy.class);
+        List<SystemProxy> healthy = List.of(mock(SystemProxy.class), mock(SystemProxy.class), mock(SystemProxy.class));
+        registry.joinPool("pool:shared", bad);
+        healthy.forEach(proxy -> registry.joinPool("pool:shared", proxy));
+        registry.recordFailure(bad);
+
+        Set<SystemProxy> chosen = new HashSet<>();
+        for (int i = 0; i < 64; i++) {
+            SystemProxy proxy = registry.selectHealthy("pool:shared", bad, "node-" + i);
+            assertNotEquals(bad, proxy);
+            chosen.add(proxy);
+            // 同一个节点每次选到同一个代理
+            assertEquals(proxy, registry.selectHealthy("pool:shared", bad, "node-" + i));
+        }
+        assertTrue(chosen.size() > 1);
+    }
+}
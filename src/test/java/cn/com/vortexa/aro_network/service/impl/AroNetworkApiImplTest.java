@@ -0,0 +1,79 @@
+package cn.com.vortexa.aro_network.service.impl;
+
+import cn.com.vortexa.aro_network.http.ApiResponseException;
+import cn.com.vortexa.aro_network.mock.MockAroServer;
+import cn.com.vortexa.aro_network.service.AroNetworkEndpoints;
+import cn.com.vortexa.base.util.log.AppendLogger;
+import cn.com.vortexa.bot_template.bot.dto.FullAccountContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Answers;
+
+import java.util.HashMap;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 积分查询走模拟服务：结果、缓存命中、业务码错误
+ *
+ * @author helei
+ * @since 2025-10-18
+ */
+class AroNetworkApiImplTest {
+    private MockAroServer server;
+    private AroNetworkApiImpl api;
+    private final AppendLogger logger = mock(AppendLogger.class);
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = new MockAroServer();
+        server.start();
+        api = new AroNetworkApiImpl(new AroNetworkEndpoints(server.baseUrl(), server.wsUrl()));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        server.close();
+    }
+
+    @Test
+    void pointQueryIsServedFromCacheWithinFreshWindow() throws Exception {
+        FullAccountContext context = account(UUID.randomUUID().toString());
+        server.setRewardTotal(42.5);
+
+        assertEquals(42.5, api.pointQueryAsync(context, logger).get(10, TimeUnit.SECONDS));
+        server.setRewardTotal(50);
+        assertEquals(42.5, api.pointQueryAsync(context, logger).get(10, TimeUnit.SECONDS));
+        assertEquals(1, server.getRewardRequests());
+    }
+
+    @Test
+    void rejectedTokenFailsWithBusinessCode() {
+        FullAccountContext context = account(UUID.randomUUID().toString());
+        server.setRewardCode(401);
+
+        ExecutionException e = assertThrows(
+                ExecutionException.class, () -> api.pointQueryAsync(context, logger).get(10, TimeUnit.SECONDS)
+        );
+        ApiResponseException cause = assertInstanceOf(ApiResponseException.class, e.getCause());
+        assertEquals(401, cause.getCode());
+    }
+
+    private static FullAccountContext account(String token) {
+        FullAccountContext context = mock(FullAccountContext.class, Answers.RETURNS_DEEP_STUBS);
+        when(context.getTokenInfo().getToken()).thenReturn(token);
+        when(context.getProxy()).thenReturn(null);
+        when(context.getParam(AroNetworkApiImpl.USER_ID_KEY)).thenReturn("user-" + token);
+        when(context.getParam(AroNetworkApiImpl.PROXY_MIGRATE_KEY)).thenReturn(null);
+        when(context.buildHeader()).thenAnswer(invocation -> new HashMap<>());
+        return context;
+    }
+}
@@ -0,0 +1,185 @@
+package cn.com.vortexa.aro_network.shard;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 两个协调器共享一个 H2 内存库，时钟由测试推进，直接调用 tick/fenceExpiring
+ *
+ * @author helei
+ * @since 2025-10-18
+ */
+class ShardCoordinatorTest {
+    private static final long HEARTBEAT = 10_000;
+    private static final long LEASE = 30_000;
+    private static final List<String> NODE_IDS = IntStream.range(0, 40).mapToObj(i -> "node-" + i).toList();
+
+    private final AtomicLong clock = new AtomicLong(1_000_000);
+    /**
+     * nodeId -> 正在运行该节点的实例，同一节点被两个实例同时运行时测试失败
+     */
+    private final Map<String, String> running = new ConcurrentHashMap<>();
+    /**
+     * instanceId/nodeId -> 会话
+     */
+    private final Map<String, CompletableFuture<Void>> sessions = new ConcurrentHashMap<>();
+    private volatile boolean strict = true;
+    private JdbcDataSource dataSource;
+    private ShardCoordinator a;
+    private ShardCoordinator b;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:shard-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        a = new ShardCoordinator(dataSource, "instance-a", HEARTBEAT, LEASE, clock::get);
+        b = new ShardCoordinator(dataSource, "instance-b", HEARTBEAT, LEASE, clock::get);
+        a.createTables();
+        for (String nodeId : NODE_IDS) {
+            register(a, nodeId);
+            register(b, nodeId);
+        }
+    }
+
+    @Test
+    void ownershipIsDisjointAndComplete() {
+        for (int round = 0; round < 4; round++) {
+            a.tick();
+            b.tick();
+            clock.addAndGet(HEARTBEAT);
+        }
+
+        Set<String> ownedByA = owned(a);
+        Set<String> ownedByB = owned(b);
+        assertFalse(ownedByA.isEmpty());
+        assertFalse(ownedByB.isEmpty());
+        Set<String> overlap = new HashSet<>(ownedByA);
+        overlap.retainAll(ownedByB);
+        assertTrue(overlap.isEmpty(), "overlap " + overlap);
+        assertEquals(NODE_IDS.size(), ownedByA.size() + ownedByB.size());
+        assertEquals(NODE_IDS.size(), running.size());
+    }
+
+    @Test
+    void expiringLeasesAreFencedBeforeTakeover() throws Exception {
+        a.tick();
+        assertEquals(NODE_IDS.size(), a.ownedCount());
+
+        // a 无法续期（例如数据库不可用），截止前一个心跳周期时自我隔离
+        clock.addAndGet(LEASE - HEARTBEAT);
+        a.fenceExpiring();
+        assertEquals(0, a.ownedCount());
+        assertTrue(running.isEmpty());
+
+        // 租约过期后 b 接管全部节点
+        clock.addAndGet(HEARTBEAT + 1);
+        b.tick();
+        assertEquals(NODE_IDS.size(), b.ownedCount());
+        for (String nodeId : NODE_IDS) {
+            assertEquals("instance-b", leaseOwner(nodeId));
+        }
+    }
+
+    @Test
+    void conditionalRenewFailsAfterTakeover() throws Exception {
+        // 截止检查被跳过时两个实例会短暂同时运行，这里只验证续期条件
+        strict = false;
+        a.tick();
+        // 跳过 a 的截止检查，模拟检查任务被延迟，租约过期后被 b 接管
+        clock.addAndGet(LEASE + 1);
+        b.tick();
+        assertEquals(NODE_IDS.size(), b.ownedCount());
+
+        // a 恢复后续期带条件，不会把 b 的租约续到自己名下，本地会话全部停止
+        a.tick();
+        for (String nodeId : NODE_IDS) {
+            assertEquals("instance-b", leaseOwner(nodeId));
+            assertEquals("instance-b", running.get(nodeId));
+        }
+        assertEquals(0, a.ownedCount());
+    }
+
+    @Test
+    void terminatedSessionReleasesLease() throws Exception {
+        a.tick();
+        String nodeId = NODE_IDS.get(0);
+        assertTrue(a.owns(nodeId));
+
+        // 会话自行结束（如超过重试次数）
+        running.remove(nodeId);
+        sessions.get("instance-a/" + nodeId).complete(null);
+        assertFalse(a.owns(nodeId));
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (leaseOwner(nodeId) != null && System.nanoTime() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+        assertNull(leaseOwner(nodeId));
+
+        // 节点已注销，之后不会再被获取和续期
+        clock.addAndGet(HEARTBEAT);
+        a.tick();
+        assertFalse(a.owns(nodeId));
+        assertNull(leaseOwner(nodeId));
+    }
+
+    private void register(ShardCoordinator coordinator, String nodeId) {
+        coordinator.register(
+                nodeId,
+                () -> {
+                    String previous = running.put(nodeId, coordinator.getInstanceId());
+                    if (strict && previous != null) {
+                        throw new AssertionError("node[%s] already running on %s".formatted(nodeId, previous));
+                    }
+                    CompletableFuture<Void> session = new CompletableFuture<>();
+                    sessions.put(coordinator.getInstanceId() + "/" + nodeId, session);
+                    return session;
+                },
+                () -> {
+                    running.remove(nodeId, coordinator.getInstanceId());
+                    CompletableFuture<Void> session = sessions.get(coordinator.getInstanceId() + "/" + nodeId);
+                    if (session != null) {
+                        session.complete(null);
+                    }
+                }
+        );
+    }
+
+    private Set<String> owned(ShardCoordinator coordinator) {
+        Set<String> owned = new HashSet<>();
+        for (String nodeId : NODE_IDS) {
+            if (coordinator.owns(nodeId)) owned.add(nodeId);
+        }
+        return owned;
+    }
+
+    private String leaseOwner(String nodeId) throws Exception {
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement("SELECT owner_id FROM aro_node_lease WHERE node_id = ?")) {
+            ps.setString(1, nodeId);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getString(1) : null;
+            }
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package cn.com.vortexa.aro_network.websocket;
+
+import cn.com.vortexa.aro_network.log.NodeEventLog;
+import cn.com.vortexa.aro_network.mock.MockAroServer;
+import cn.com.vortexa.base.util.log.AppendLogger;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.LongSummaryStatistics;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * 用模拟服务驱动 N 个 AROClient，输出连接吞吐、心跳往返时间与抖动、单连接堆占用、重连风暴恢复时间
+ * 客户端数量通过系统属性 aro.harness.clients 指定，默认为较小的值以便在常规测试中运行：
+ * mvn test -Dtest=AROClientHarnessTest -Daro.harness.clients=2000
+ *
+ * @author helei
+ * @since 2025-10-18
+ */
+@Slf4j
+class AROClientHarnessTest {
+    private static final int CLIENTS = Integer.getInteger("aro.harness.clients", 20);
+    private static final long PING_INTERVAL_MILLIS = Long.getLong("aro.harness.ping-interval-millis", 200);
+    private static final long TIMEOUT_SECONDS = Math.max(30, CLIENTS / 20);
+
+    private MockAroServer server;
+    private final List<AROClient> clients = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = new MockAroServer();
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        clients.forEach(AROClient::shutdown);
+        clients.clear();
+        server.close();
+    }
+
+    @Test
+    void connectHeartbeatAndRecoverFromReconnectStorm() throws Exception {
+        AppendLogger logger = mock(AppendLogger.class);
+        ReconnectPolicy reconnectPolicy = new ReconnectPolicy(200, 2_000, 2.0);
+
+        long heapBefore = usedHeap();
+        long connectStart = System.nanoTime();
+        for (int i = 0; i < CLIENTS; i++) {
+            String nodeId = "harness-node-" + i;
+            AROClient client = new AROClient(
+                    server.wsUrl(), null, "harness-user-" + i, nodeId, Integer.MAX_VALUE, reconnectPolicy, null,
+                    NodeEventLog.of(nodeId, logger)
+            );
+            clients.add(client);
+            client.startAsync();
+        }
+        awaitTrue(this::allAuthed, "all clients authed");
+        long connectNanos = System.nanoTime() - connectStart;
+        long heapPerClient = (usedHeap() - heapBefore) / CLIENTS;
+
+        server.startPing(PING_INTERVAL_MILLIS);
+        TimeUnit.MILLISECONDS.sleep(PING_INTERVAL_MILLIS * 10);
+        LongSummaryStatistics rtt = server.drainPongRttNanos().stream()
+                .mapToLong(TimeUnit.NANOSECONDS::toMicros)
+                .summaryStatistics();
+
+        int dropped = server.dropAll();
+        long stormStart = System.nanoTime();
+        awaitTrue(() -> server.authedCount() == CLIENTS && allAuthed(), "all clients re-authed");
+        long recoveryNanos = System.nanoTime() - stormStart;
+
+        log.info(
+                "clients={} connect={}ms ({}/s) heap/client={}B pongRtt(us) n={} min={} avg={} max={} jitter={} "
+                        + "storm dropped={} recovered={}ms",
+                CLIENTS,
+                TimeUnit.NANOSECONDS.toMillis(connectNanos),
+                Math.round(CLIENTS * 1e9 / connectNanos),
+                heapPerClient,
+                rtt.getCount(), rtt.getMin(), Math.round(rtt.getAverage()), rtt.getMax(), rtt.getMax() - rtt.getMin(),
+                dropped,
+                TimeUnit.NANOSECONDS.toMillis(recoveryNanos)
+        );
+
+        assertEquals(CLIENTS, dropped);
+        assertTrue(rtt.getCount() > 0, "no pong received");
+        assertEquals(CLIENTS * 2, server.getAuthCount());
+        for (AROClient client : clients) {
+            assertEquals(1, client.getReconnectCount());
+        }
+    }
+
+    private boolean allAuthed() {
+        for (AROClient client : clients) {
+            if (client.getState() != SessionState.AUTHED) return false;
+        }
+        return true;
+    }
+
+    private static void awaitTrue(BooleanSupplier condition, String message) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("timeout waiting for " + message);
+            }
+            TimeUnit.MILLISECONDS.sleep(20);
+        }
+    }
+
+    private static long usedHeap() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            TimeUnit.MILLISECONDS.sleep(50);
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,60 @@
+package cn.com.vortexa.aro_network.websocket;
+
+import okhttp3.Request;
+import okhttp3.WebSocket;
+import okio.ByteString;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * 不连网络的 WebSocket，只记录最后一次发送的帧，用于基准测试和单元测试
+ *
+ * @author helei
+ * @since 2025-10-18
+ */
+public class FakeWebSocket implements WebSocket {
+    private static final Request REQUEST = new Request.Builder().url("http://localhost/socket.io/").build();
+
+    private String lastFrame;
+    private long sent;
+
+    @NotNull
+    @Override
+    public Request request() {
+        return REQUEST;
+    }
+
+    @Override
+    public long queueSize() {
+        return 0;
+    }
+
+    @Override
+    public boolean send(@NotNull String text) {
+        lastFrame = text;
+        sent++;
+        return true;
+    }
+
+    @Override
+    public boolean send(@NotNull ByteString bytes) {
+        sent++;
+        return true;
+    }
+
+    @Override
+    public boolean close(int code, String reason) {
+        return true;
+    }
+
+    @Override
+    public void cancel() {
+    }
+
+    public String getLastFrame() {
+        return lastFrame;
+    }
+
+    public long getSent() {
+        return sent;
+    }
+}
@@ -0,0 +1,92 @@
+package cn.com.vortexa.aro_network.websocket;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 帧类型解析与响应帧编码，legacy* 为引入 SocketIOFrameCodec 之前的处理方式（见 LegacyFrameCodec）
+ * mvn -Pjmh verify -DskipTests -Djmh.includes=FrameCodecBenchmark
+ *
+ * @author helei
+ * @since 2025-10-18
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FrameCodecBenchmark {
+    private static final String PING_EVENT =
+            "42[\"ping\",\"{\\\"nodeId\\\":\\\"bench-node\\\",\\\"userId\\\":\\\"bench-user\\\"}\"]";
+
+    @Param({
+            "2",
+            "40{\"sid\":\"bench\"}",
+            "42[\"ping\",\"{\\\"nodeId\\\":\\\"bench-node\\\",\\\"userId\\\":\\\"bench-user\\\"}\"]"
+    })
+    public String frame;
+
+    private String pingData;
+    private String connectData;
+
+    @Setup
+    public void setUp() {
+        pingData = "\"{\\\"nodeId\\\":\\\"bench-node\\\",\\\"userId\\\":\\\"bench-user\\\"}\"";
+        connectData = "{\"token\":{\"nodeId\":\"bench-node\",\"userId\":\"bench-user\"}}";
+    }
+
+    @Benchmark
+    public int packetType() {
+        return SocketIOFrameCodec.packetType(frame);
+    }
+
+    @Benchmark
+    public int legacyPacketType() {
+        return LegacyFrameCodec.getMessageCode(frame).getKey();
+    }
+
+    @Benchmark
+    public String pingEventToPong() {
+        String text = PING_EVENT;
+        int offset = SocketIOFrameCodec.payloadOffset(text);
+        int nameEnd = SocketIOFrameCodec.eventNameEnd(text, offset);
+        return SocketIOClient.MessageResponse.eventResponse("pong", SocketIOFrameCodec.eventData(text, nameEnd)).toSendMsg();
+    }
+
+    @Benchmark
+    public String legacyPingEventToPong() {
+        return LegacyFrameCodec.pongForPingEvent(PING_EVENT);
+    }
+
+    @Benchmark
+    public String pongEventToSendMsg() {
+        return SocketIOClient.MessageResponse.eventResponse("pong", pingData).toSendMsg();
+    }
+
+    @Benchmark
+    public String connectToSendMsg() {
+        return SocketIOClient.MessageResponse.connectResponse(connectData).toSendMsg();
+    }
+
+    @Benchmark
+    public String enginePongToSendMsg() {
+        return SocketIOClient.MessageResponse.pongResponse(null).toSendMsg();
+    }
+
+    @Benchmark
+    public String legacyConnectToSendMsg() {
+        return LegacyFrameCodec.toSendMsg(SocketIOClient.CONNECT_CODE, connectData);
+    }
+}
@@ -0,0 +1,73 @@
+package cn.com.vortexa.aro_network.websocket;
+
+import cn.com.vortexa.aro_network.log.NodeEventLog;
+import cn.com.vortexa.base.util.log.AppendLogger;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AROClient.onMessage 按帧类型分发的耗时和分配，帧经 FakeWebSocket 回写，不走网络
+ * mvn -Pjmh verify -DskipTests -Djmh.includes=FrameDispatchBenchmark
+ *
+ * @author helei
+ * @since 2025-10-18
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FrameDispatchBenchmark {
+    private static final Map<String, String> FRAMES = Map.of(
+            "open", "0{\"sid\":\"bench\",\"upgrades\":[],\"pingInterval\":25000,\"pingTimeout\":20000}",
+            "connect", "40{\"sid\":\"bench\"}",
+            "event_ping", "42[\"ping\",\"{\\\"nodeId\\\":\\\"bench-node\\\",\\\"userId\\\":\\\"bench-user\\\"}\"]",
+            "engine_ping", "2",
+            "engine_pong", "3"
+    );
+
+    @Param({"open", "connect", "event_ping", "engine_ping", "engine_pong"})
+    public String packet;
+
+    private AROClient client;
+    private FakeWebSocket webSocket;
+    private String frame;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        AppendLogger logger = Mockito.mock(AppendLogger.class);
+        client = new AROClient(
+                "ws://localhost/socket.io/", null, "bench-user", "bench-node", 0,
+                new ReconnectPolicy(1_000, 1_000, 1), null, NodeEventLog.of("bench-node", logger)
+        );
+        webSocket = new FakeWebSocket();
+        frame = FRAMES.get(packet);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        client.shutdown();
+    }
+
+    @Benchmark
+    public String onMessage() {
+        client.onMessage(webSocket, frame);
+        return webSocket.getLastFrame();
+    }
+}
@@ -0,0 +1,54 @@
+package cn.com.vortexa.aro_network.websocket;
+
+import cn.hutool.core.lang.Pair;
+import cn.hutool.core.util.StrUtil;
+import com.alibaba.fastjson.JSONArray;
+
+import java.util.List;
+
+/**
+ * 引入 SocketIOFrameCodec 之前的帧处理方式，只用于基准对比
+ * 1.toCharArray + StringBuilder + parseInt 读取类型，返回 Pair
+ * 2.JSONArray 解析整个事件帧
+ * 3.响应帧由 code + data 拼接，事件数据重新序列化
+ *
+ * @author helei
+ * @since 2025-10-18
+ */
+final class LegacyFrameCodec {
+    private LegacyFrameCodec() {
+    }
+
+    static Pair<Integer, String> getMessageCode(String text) {
+        if (StrUtil.isEmpty(text)) {
+            throw new IllegalArgumentException("text is empty");
+        }
+        char[] charArray = text.toCharArray();
+        StringBuilder numberSB = new StringBuilder();
+        for (char c : charArray) {
+            if (Character.isDigit(c)) {
+                numberSB.append(c);
+            } else {
+                break;
+            }
+        }
+        return Pair.of(Integer.parseInt(numberSB.toString()), text.substring(numberSB.length()));
+    }
+
+    /**
+     * 解析事件帧并生成回复的 pong 事件，对应原来 handlerEvent("ping") 的处理
+     */
+    static String pongForPingEvent(String text) {
+        Pair<Integer, String> codeAndContent = getMessageCode(text);
+        JSONArray arr = JSONArray.parseArray(codeAndContent.getValue());
+        return toSendMsg(SocketIOClient.EVENT_CODE, JSONArray.toJSONString(List.of("pong", arr.get(1))));
+    }
+
+    static String toSendMsg(int code, Object data) {
+        if (data == null) {
+            return "" + code;
+        } else {
+            return "" + code + data;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package cn.com.vortexa.aro_network.websocket;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 会话状态和计数的存放方式：原来每个会话持有多个原子对象，与 SessionTable 的共享槽位
+ * 1.allocate*：一次创建 sessions 个会话的状态，-prof gc 的 gc.alloc.rate.norm 除以 sessions 即每个会话占用的堆
+ * 2.record*：按顺序轮流更新各会话的心跳计数和发送字节数，对比热路径的耗时
+ * mvn -Pjmh verify -DskipTests -Djmh.includes=SessionTableBenchmark
+ *
+ * @author helei
+ * @since 2025-10-18
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SessionTableBenchmark {
+    @Param({"1000", "100000"})
+    public int sessions;
+
+    private LegacySession[] legacySessions;
+    private SessionTable table;
+    private int[] slots;
+    private int next = 0;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        legacySessions = allocateLegacy();
+        table = new SessionTable();
+        slots = new int[sessions];
+        for (int i = 0; i < sessions; i++) {
+            slots[i] = table.allocate();
+        }
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public LegacySession[] allocateLegacy() {
+        LegacySession[] result = new LegacySession[sessions];
+        for (int i = 0; i < sessions; i++) {
+            result[i] = new LegacySession();
+        }
+        return result;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public SessionTable allocateTable() {
+        SessionTable result = new SessionTable();
+        for (int i = 0; i < sessions; i++) {
+            result.allocate();
+        }
+        return result;
+    }
+
+    @Benchmark
+    public long recordLegacy() {
+        LegacySession session = legacySessions[nextIndex()];
+        session.pingCounter.incrementAndGet();
+        return session.bytesOut.addAndGet(64);
+    }
+
+    @Benchmark
+    public long recordTable() {
+        int slot = slots[nextIndex()];
+        table.addInt(slot, SessionTable.PING_COUNT, 1);
+        return table.addLong(slot, SessionTable.BYTES_OUT, 64);
+    }
+
+    private int nextIndex() {
+        int index = next;
+        next = index + 1 == sessions ? 0 : index + 1;
+        return index;
+    }
+
+    /**
+     * 改为 SessionTable 之前 SocketIOClient、AROClient 的写法，每个计数一个原子对象，字段与 SessionTable 一致
+     */
+    public static final class LegacySession {
+        private volatile SessionState state = SessionState.CONNECTING;
+        private volatile long openTime = 0;
+        private final AtomicLong bytesIn = new AtomicLong(0);
+        private final AtomicLong bytesOut = new AtomicLong(0);
+        private final AtomicInteger pingCounter = new AtomicInteger(0);
+        private final AtomicInteger reconnectCounter = new AtomicInteger(0);
+        private final AtomicInteger backoffAttempt = new AtomicInteger(0);
+        private final AtomicInteger skippedSends = new AtomicInteger(0);
+        private final AtomicInteger sendRejects = new AtomicInteger(0);
+        private volatile long lastPingSentNanos = 0;
+        private volatile long lastServerPingNanos = 0;
+        private volatile long lastEnginePingNanos = 0;
+        private volatile long lastAuthLatencyMillis = -1;
+        private volatile long lastAuthTime = 0;
+        private volatile int restoredReconnects = 0;
+    }
+}
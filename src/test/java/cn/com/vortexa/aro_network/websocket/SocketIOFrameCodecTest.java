@@ -0,0 +1,52 @@
+package cn.com.vortexa.aro_network.websocket;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * SocketIOFrameCodec 与原来基于 JSONArray 的处理结果一致
+ *
+ * @author helei
+ * @since 2025-10-18
+ */
+class SocketIOFrameCodecTest {
+    private static final String PING_EVENT =
+            "42[\"ping\",\"{\\\"nodeId\\\":\\\"n1\\\",\\\"userId\\\":\\\"u1\\\"}\"]";
+
+    @Test
+    void packetTypeMatchesLegacy() {
+        for (String frame : new String[]{"0{\"sid\":\"s\"}", "40", "40{\"sid\":\"s\"}", "2", "3", PING_EVENT}) {
+            assertEquals(LegacyFrameCodec.getMessageCode(frame).getKey(), SocketIOFrameCodec.packetType(frame));
+        }
+        assertEquals(SocketIOFrameCodec.NO_TYPE, SocketIOFrameCodec.packetType("{}"));
+    }
+
+    @Test
+    void pongReplyMatchesLegacy() {
+        int offset = SocketIOFrameCodec.payloadOffset(PING_EVENT);
+        int nameEnd = SocketIOFrameCodec.eventNameEnd(PING_EVENT, offset);
+        assertEquals("ping", SocketIOFrameCodec.eventName(PING_EVENT, offset, nameEnd));
+        String pong = SocketIOClient.MessageResponse
+                .eventResponse("pong", SocketIOFrameCodec.eventData(PING_EVENT, nameEnd))
+                .toSendMsg();
+        assertEquals(LegacyFrameCodec.pongForPingEvent(PING_EVENT), pong);
+    }
+
+    @Test
+    void eventWithoutData() {
+        String frame = "42[\"auth\"]";
+        int offset = SocketIOFrameCodec.payloadOffset(frame);
+        int nameEnd = SocketIOFrameCodec.eventNameEnd(frame, offset);
+        assertEquals("auth", SocketIOFrameCodec.eventName(frame, offset, nameEnd));
+        assertNull(SocketIOFrameCodec.eventData(frame, nameEnd));
+    }
+
+    @Test
+    void utf8Length() {
+        assertEquals(3, SocketIOFrameCodec.utf8Length("abc"));
+        assertEquals(6, SocketIOFrameCodec.utf8Length("节点"));
+        assertEquals(4, SocketIOFrameCodec.utf8Length("😀"));
+    }
+}